@@ -3,18 +3,21 @@
  */
 package com.recognition.software.jdeskew;
 
-import net.sourceforge.tess4j.util.LoggHelper;
-import org.slf4j.LoggerFactory;
-
 import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinTask;
 
 public class ImageDeskew {
 
-    private static final org.slf4j.Logger logger = LoggerFactory.getLogger(new LoggHelper().toString());
-
     /**
      * Representation of a line in the image.
+     *
+     * @deprecated no longer used; the skew angle is found from the Hough
+     * matrix directly. Kept for binary compatibility.
      */
+    @Deprecated
     public class HoughLine {
 
         // count of points in the line
@@ -29,6 +32,8 @@ public class ImageDeskew {
 
     // the source image
     private BufferedImage cImage;
+    // black gray levels of a gray source image, looked up for every row
+    private final boolean[] cGrayTable;
     // the range of angles to search for lines
     private double cAlphaStart = -20;
     private double cAlphaStep = 0.2;
@@ -42,6 +47,31 @@ public class ImageDeskew {
     private int cDCount;
     // count of points that fit in a line
     private int[] cHMatrix;
+    // number of lines averaged into the skew angle, plus one
+    private static final int TOP_COUNT = 20;
+    // points and matrix indices of the lines with most points
+    private int[] cTopCounts;
+    private int[] cTopIndices;
+    // number of row stripes accumulated in parallel
+    private int cParallelism = 1;
+    // downsampling of the edge map for the coarse search; 1 for none
+    private int cPyramidScale = 1;
+    // range and step of the refinement around the coarse angle
+    private double cRefineRange = DEFAULT_REFINE_RANGE;
+    private double cRefineStep = DEFAULT_REFINE_STEP;
+
+    /**
+     * Downsampling of the edge map in the coarse search of the pyramid mode.
+     */
+    public static final int DEFAULT_PYRAMID_SCALE = 4;
+    /**
+     * Range, in degrees either side of the coarse angle, of the refinement.
+     */
+    public static final double DEFAULT_REFINE_RANGE = 1.0;
+    /**
+     * Step, in degrees, of the refinement.
+     */
+    public static final double DEFAULT_REFINE_STEP = 0.05;
 
     /**
      * Constructor.
@@ -50,6 +80,73 @@ public class ImageDeskew {
      */
     public ImageDeskew(BufferedImage image) {
         this.cImage = image;
+        this.cGrayTable = ImageUtil.getBlackGrayTable(image);
+    }
+
+    /**
+     * Sets the number of row stripes accumulated in parallel, on the common
+     * fork/join pool. Each stripe has its own accumulator of about 8 bytes
+     * per angle step and pixel of width plus height, so memory grows with the
+     * parallelism. The angle does not depend on it. The default is 1.
+     *
+     * @param parallelism number of stripes
+     */
+    public void setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be positive.");
+        }
+        this.cParallelism = parallelism;
+    }
+
+    /**
+     * Sets the range of angles searched for lines. The default is -20 to 19.6
+     * degrees in steps of 0.2 degrees.
+     *
+     * @param minAngle smallest angle, in degrees
+     * @param maxAngle largest angle, in degrees
+     * @param step step between angles, in degrees
+     */
+    public void setSearchRange(double minAngle, double maxAngle, double step) {
+        if (step <= 0 || maxAngle < minAngle) {
+            throw new IllegalArgumentException("Invalid search range: " + minAngle + " to " + maxAngle + " by " + step);
+        }
+        this.cAlphaStart = minAngle;
+        this.cAlphaStep = step;
+        // angles 0 to cSteps - 2 are searched
+        this.cSteps = (int) Math.round((maxAngle - minAngle) / step) + 2;
+    }
+
+    /**
+     * Sets the pyramid mode. With a scale above 1, the angle is first found
+     * over the whole search range on an edge map downsampled by the scale,
+     * then refined at full resolution within the refinement range of it. The
+     * image is still scanned once, but most lines are then tried on the small
+     * map or at few angles, and the finer step of the refinement makes the
+     * angle more precise. The default scale is 1, a single search at full
+     * resolution.
+     *
+     * @param scale downsampling of the edge map, e.g.,
+     * <code>DEFAULT_PYRAMID_SCALE</code>; 1 to turn the pyramid mode off
+     */
+    public void setPyramidScale(int scale) {
+        if (scale < 1) {
+            throw new IllegalArgumentException("Pyramid scale must be positive.");
+        }
+        this.cPyramidScale = scale;
+    }
+
+    /**
+     * Sets the refinement of the pyramid mode.
+     *
+     * @param range degrees either side of the coarse angle
+     * @param step step between angles, in degrees
+     */
+    public void setRefinement(double range, double step) {
+        if (step <= 0 || range < 0) {
+            throw new IllegalArgumentException("Invalid refinement: " + range + " by " + step);
+        }
+        this.cRefineRange = range;
+        this.cRefineStep = step;
     }
 
     /**
@@ -58,103 +155,217 @@ public class ImageDeskew {
      * @return the skew angle
      */
     public double getSkewAngle() {
-        ImageDeskew.HoughLine[] hl;
-        double sum = 0.0;
-        int count = 0;
+        int scale = this.cPyramidScale;
+        if (scale > 1 && this.cImage.getWidth() / scale >= 4 && this.cImage.getHeight() / scale >= 4) {
+            return getPyramidSkewAngle(scale);
+        }
 
         // perform Hough Transformation
         calc();
-        // top 20 of the detected lines in the image
-        hl = getTop(20);
+        return getAverageAlpha();
+    }
 
-        if (hl.length >= 20) {
-            // average angle of the lines
-            for (int i = 0; i < 19; i++) {
-                sum += hl[i].alpha;
-                count++;
+    // coarse search on the downsampled edge map, refined at full resolution;
+    // the image is scanned once for the edge points of both searches
+    private double getPyramidSkewAngle(int scale) {
+        Points edges = getEdgePoints();
+
+        // one point per block of scale by scale pixels with an edge
+        int mapWidth = (this.cImage.getWidth() + scale - 1) / scale;
+        int mapHeight = (this.cImage.getHeight() + scale - 1) / scale;
+        boolean[] blocks = new boolean[mapWidth * mapHeight];
+        Points map = new Points();
+        for (int i = 0; i < edges.count; i++) {
+            int x = edges.x[i] / scale;
+            int y = edges.y[i] / scale;
+            if (!blocks[y * mapWidth + x]) {
+                blocks[y * mapWidth + x] = true;
+                map.add(x, y);
             }
-            return (sum / count);
-        } else {
-            return 0.0d;
         }
+
+        ImageDeskew coarse = new ImageDeskew(this.cImage);
+        coarse.cAlphaStart = this.cAlphaStart;
+        coarse.cAlphaStep = this.cAlphaStep;
+        coarse.cSteps = this.cSteps;
+        coarse.cParallelism = this.cParallelism;
+        double angle = coarse.getSkewAngle(map, mapWidth, mapHeight);
+
+        // stay within the search range
+        double minAngle = Math.max(angle - this.cRefineRange, this.cAlphaStart);
+        double maxAngle = Math.min(angle + this.cRefineRange, getAlpha(this.cSteps - 2));
+        ImageDeskew fine = new ImageDeskew(this.cImage);
+        fine.setSearchRange(minAngle, Math.max(minAngle, maxAngle), this.cRefineStep);
+        fine.cParallelism = this.cParallelism;
+        return fine.getSkewAngle(edges, this.cImage.getWidth(), this.cImage.getHeight());
     }
 
-    // calculate the count lines in the image with most points
-    private ImageDeskew.HoughLine[] getTop(int count) {
+    // Hough Transformation of points in an image of width by height
+    private double getSkewAngle(Points points, int width, int height) {
+        init(width, height);
+        accumulate(0, points.count, (from, to, hMatrix) -> {
+            for (int i = from; i < to; i++) {
+                calc(points.x[i], points.y[i], hMatrix);
+            }
+        });
+        return getAverageAlpha();
+    }
+
+    // average angle of the top lines
+    private double getAverageAlpha() {
+        double sum = 0.0;
+        int count = 0;
+
+        // top 20 of the detected lines in the image
+        getTop(TOP_COUNT);
 
-        ImageDeskew.HoughLine[] hl = new ImageDeskew.HoughLine[count];
-        for (int i = 0; i < count; i++) {
-            hl[i] = new ImageDeskew.HoughLine();
+        // average angle of the lines
+        for (int i = 0; i < TOP_COUNT - 1; i++) {
+            sum += getAlpha(this.cTopIndices[i] % this.cSteps);
+            count++;
         }
+        return (sum / count);
+    }
 
-        ImageDeskew.HoughLine tmp;
+    // calculate the count lines in the image with most points, in descending
+    // order of points; lines with equal points stay in matrix order
+    private void getTop(int count) {
+        if (this.cTopCounts == null || this.cTopCounts.length != count) {
+            this.cTopCounts = new int[count];
+            this.cTopIndices = new int[count];
+        }
+        int[] topCounts = this.cTopCounts;
+        int[] topIndices = this.cTopIndices;
+        Arrays.fill(topCounts, 0);
+        Arrays.fill(topIndices, 0);
 
-        for (int i = 0; i < (this.cHMatrix.length - 1); i++) {
-            if (this.cHMatrix[i] > hl[count - 1].count) {
-                hl[count - 1].count = this.cHMatrix[i];
-                hl[count - 1].index = i;
+        int[] hMatrix = this.cHMatrix;
+        for (int i = 0; i < (hMatrix.length - 1); i++) {
+            int points = hMatrix[i];
+            if (points > topCounts[count - 1]) {
                 int j = count - 1;
-                while ((j > 0) && (hl[j].count > hl[j - 1].count)) {
-                    tmp = hl[j];
-                    hl[j] = hl[j - 1];
-                    hl[j - 1] = tmp;
+                while ((j > 0) && (points > topCounts[j - 1])) {
+                    topCounts[j] = topCounts[j - 1];
+                    topIndices[j] = topIndices[j - 1];
                     j--;
                 }
+                topCounts[j] = points;
+                topIndices[j] = i;
             }
         }
-
-        int alphaIndex;
-        int dIndex;
-        
-        for (int i = 0; i < count; i++) {
-            dIndex = hl[i].index / cSteps; // integer division, no
-            // remainder
-            alphaIndex = hl[i].index - dIndex * cSteps;
-            hl[i].alpha = getAlpha(alphaIndex);
-            hl[i].d = dIndex + cDMin;
-        }
-
-        return hl;
     }
 
     // Hough Transformation
     private void calc() {
         int hMin = (int) ((this.cImage.getHeight()) / 4.0);
         int hMax = (int) ((this.cImage.getHeight()) * 3.0 / 4.0);
-        init();
+        init(this.cImage.getWidth(), this.cImage.getHeight());
+        accumulate(hMin, hMax, this::calcRows);
+    }
 
-        for (int y = hMin; y < hMax; y++) {
-            for (int x = 1; x < (this.cImage.getWidth() - 2); x++) {
+    // accumulate items from to to, exclusive, in parallel stripes
+    private void accumulate(int from, int to, Stripe stripe) {
+        int stripes = Math.min(this.cParallelism, to - from);
+        if (stripes <= 1) {
+            stripe.calc(from, to, this.cHMatrix);
+            return;
+        }
+
+        // each stripe into its own accumulator; the first one accumulates
+        // into the matrix itself
+        List<ForkJoinTask<int[]>> tasks = new ArrayList<>();
+        for (int i = 0; i < stripes; i++) {
+            final int min = from + (int) ((long) (to - from) * i / stripes);
+            final int max = from + (int) ((long) (to - from) * (i + 1) / stripes);
+            final int[] hMatrix = i == 0 ? this.cHMatrix : null;
+            tasks.add(ForkJoinTask.adapt(() -> {
+                int[] accumulator = hMatrix != null ? hMatrix : new int[this.cHMatrix.length];
+                stripe.calc(min, max, accumulator);
+                return accumulator;
+            }));
+        }
+        ForkJoinTask.invokeAll(tasks);
+
+        // counts are integers, so the sums do not depend on the order
+        int[] hMatrix = this.cHMatrix;
+        for (int i = 1; i < stripes; i++) {
+            int[] accumulator = tasks.get(i).join();
+            for (int k = 0; k < hMatrix.length; k++) {
+                hMatrix[k] += accumulator[k];
+            }
+        }
+    }
+
+    // accumulate the lower edges of rows yMin to yMax, exclusive
+    private void calcRows(int yMin, int yMax, int[] hMatrix) {
+        if (yMin >= yMax) {
+            return;
+        }
+
+        int width = this.cImage.getWidth();
+        boolean[] row = new boolean[width];
+        boolean[] nextRow = new boolean[width];
+        ImageUtil.getBlackRow(this.cImage, yMin, row, this.cGrayTable);
+
+        for (int y = yMin; y < yMax; y++) {
+            ImageUtil.getBlackRow(this.cImage, y + 1, nextRow, this.cGrayTable);
+            for (int x = 1; x < (width - 2); x++) {
                 // only lower edges are considered
-                if (ImageUtil.isBlack(this.cImage, x, y)) {
-                    if (!ImageUtil.isBlack(this.cImage, x, y + 1)) {
-                        calc(x, y);
-                    }
+                if (row[x] && !nextRow[x]) {
+                    calc(x, y, hMatrix);
                 }
             }
+            boolean[] tmp = row;
+            row = nextRow;
+            nextRow = tmp;
+        }
+    }
+
+    // the lower edges of the rows searched by calc()
+    private Points getEdgePoints() {
+        int hMin = (int) ((this.cImage.getHeight()) / 4.0);
+        int hMax = (int) ((this.cImage.getHeight()) * 3.0 / 4.0);
+        Points edges = new Points();
+        if (hMin >= hMax) {
+            return edges;
         }
 
+        int width = this.cImage.getWidth();
+        boolean[] row = new boolean[width];
+        boolean[] nextRow = new boolean[width];
+        ImageUtil.getBlackRow(this.cImage, hMin, row, this.cGrayTable);
+
+        for (int y = hMin; y < hMax; y++) {
+            ImageUtil.getBlackRow(this.cImage, y + 1, nextRow, this.cGrayTable);
+            for (int x = 1; x < (width - 2); x++) {
+                if (row[x] && !nextRow[x]) {
+                    edges.add(x, y);
+                }
+            }
+            boolean[] tmp = row;
+            row = nextRow;
+            nextRow = tmp;
+        }
+        return edges;
     }
 
     // calculate all lines through the point (x,y)
-    private void calc(int x, int y) {
-        double d;
-        int dIndex;
-        int index;
-
-        for (int alpha = 0; alpha < (this.cSteps - 1); alpha++) {
-            d = y * this.cCosA[alpha] - x * this.cSinA[alpha];
-            dIndex = (int) (d - this.cDMin);
-            index = dIndex * this.cSteps + alpha;
-            try {
-                this.cHMatrix[index] += 1;
-            } catch (Exception e) {
-                logger.warn("", e);
+    private void calc(int x, int y, int[] hMatrix) {
+        double[] sinA = this.cSinA;
+        double[] cosA = this.cCosA;
+        int steps = this.cSteps;
+        double dMin = this.cDMin;
+
+        for (int alpha = 0; alpha < (steps - 1); alpha++) {
+            double d = y * cosA[alpha] - x * sinA[alpha];
+            int index = (int) (d - dMin) * steps + alpha;
+            if (index >= 0 && index < hMatrix.length) {
+                hMatrix[index]++;
             }
         }
     }
 
-    private void init() {
+    private void init(int width, int height) {
 
         double angle;
 
@@ -169,12 +380,36 @@ public class ImageDeskew {
         }
 
         // range of d
-        this.cDMin = -this.cImage.getWidth();
-        this.cDCount = (int) (2.0 * ((this.cImage.getWidth() + this.cImage.getHeight())) / this.cDStep);
+        this.cDMin = -width;
+        this.cDCount = (int) (2.0 * ((width + height)) / this.cDStep);
         this.cHMatrix = new int[this.cDCount * this.cSteps];
     }
 
     public double getAlpha(int index) {
         return this.cAlphaStart + (index * this.cAlphaStep);
     }
+
+    // accumulation of a stripe of items
+    private interface Stripe {
+
+        void calc(int from, int to, int[] hMatrix);
+    }
+
+    // growable list of points
+    private static class Points {
+
+        int[] x = new int[1024];
+        int[] y = new int[1024];
+        int count;
+
+        void add(int px, int py) {
+            if (count == x.length) {
+                x = Arrays.copyOf(x, count * 2);
+                y = Arrays.copyOf(y, count * 2);
+            }
+            x[count] = px;
+            y[count] = py;
+            count++;
+        }
+    }
 }
@@ -8,6 +8,15 @@ import java.awt.Graphics2D;
 import java.awt.RenderingHints;
 import java.awt.geom.AffineTransform;
 import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.ComponentSampleModel;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.awt.image.MultiPixelPackedSampleModel;
+import java.awt.image.Raster;
+import java.awt.image.SampleModel;
+import java.awt.image.SinglePixelPackedSampleModel;
 import java.awt.image.WritableRaster;
 
 import net.sourceforge.tess4j.util.LoggHelper;
@@ -18,6 +27,9 @@ public class ImageUtil {
 
     private static final Logger logger = LoggerFactory.getLogger(new LoggHelper().toString());
 
+    // luminance below which a pixel is black
+    private static final int BLACK_LUMINANCE = 140;
+
     /**
      * Whether the pixel is black.
      * 
@@ -33,8 +45,7 @@ public class ImageUtil {
             return pixelRGBValue == 0;
         }
 
-        int luminanceValue = 140;
-        return isBlack(image, x, y, luminanceValue);
+        return isBlack(image, x, y, BLACK_LUMINANCE);
     }
 
     /**
@@ -71,6 +82,118 @@ public class ImageUtil {
         return luminance < luminanceCutOff;
     }
 
+    /**
+     * Finds the black pixels of a row, as <code>isBlack</code> does, reading
+     * the data buffer of common image types directly.
+     *
+     * @param image source image
+     * @param y y-coordinate of the row
+     * @param black receives whether each pixel of the row is black; at least
+     * as long as the image is wide
+     * @param grayTable table of <code>getBlackGrayTable</code> for the image,
+     * built once for all its rows
+     */
+    static void getBlackRow(BufferedImage image, int y, boolean[] black, boolean[] grayTable) {
+        int width = image.getWidth();
+        Raster raster = image.getRaster();
+        DataBuffer dataBuffer = raster.getDataBuffer();
+        SampleModel sampleModel = raster.getSampleModel();
+        int rx = -raster.getSampleModelTranslateX();
+        int ry = y - raster.getSampleModelTranslateY();
+
+        switch (image.getType()) {
+            case BufferedImage.TYPE_BYTE_BINARY:
+                if (sampleModel instanceof MultiPixelPackedSampleModel && dataBuffer instanceof DataBufferByte
+                        && ((MultiPixelPackedSampleModel) sampleModel).getPixelBitStride() == 1) {
+                    MultiPixelPackedSampleModel mpp = (MultiPixelPackedSampleModel) sampleModel;
+                    byte[] data = ((DataBufferByte) dataBuffer).getData();
+                    long rowBit = 8L * (dataBuffer.getOffset() + (long) ry * mpp.getScanlineStride()) + mpp.getDataBitOffset() + rx;
+                    for (int x = 0; x < width; x++) {
+                        long bit = rowBit + x;
+                        black[x] = (data[(int) (bit >>> 3)] & (0x80 >>> (bit & 7))) == 0;
+                    }
+                } else {
+                    int[] samples = raster.getSamples(0, y, width, 1, 0, (int[]) null);
+                    for (int x = 0; x < width; x++) {
+                        black[x] = samples[x] == 0;
+                    }
+                }
+                return;
+            case BufferedImage.TYPE_BYTE_GRAY: {
+                ComponentSampleModel csm = (ComponentSampleModel) sampleModel;
+                byte[] data = ((DataBufferByte) dataBuffer).getData();
+                boolean[] lut = grayTable != null ? grayTable : getBlackGrayTable(image);
+                int pixelStride = csm.getPixelStride();
+                int i = dataBuffer.getOffset() + csm.getOffset(rx, ry, 0);
+                for (int x = 0; x < width; x++, i += pixelStride) {
+                    black[x] = lut[data[i] & 0xFF];
+                }
+                return;
+            }
+            case BufferedImage.TYPE_INT_RGB:
+            case BufferedImage.TYPE_INT_ARGB: {
+                SinglePixelPackedSampleModel sppsm = (SinglePixelPackedSampleModel) sampleModel;
+                int[] data = ((DataBufferInt) dataBuffer).getData();
+                int i = dataBuffer.getOffset() + sppsm.getOffset(rx, ry);
+                for (int x = 0; x < width; x++, i++) {
+                    black[x] = isBlack(data[i]);
+                }
+                return;
+            }
+            case BufferedImage.TYPE_3BYTE_BGR: {
+                ComponentSampleModel csm = (ComponentSampleModel) sampleModel;
+                byte[] data = ((DataBufferByte) dataBuffer).getData();
+                int[] bandOffsets = csm.getBandOffsets();
+                int pixelStride = csm.getPixelStride();
+                int i = dataBuffer.getOffset() + csm.getOffset(rx, ry, 0) - bandOffsets[0];
+                for (int x = 0; x < width; x++, i += pixelStride) {
+                    int r = data[i + bandOffsets[0]] & 0xFF;
+                    int g = data[i + bandOffsets[1]] & 0xFF;
+                    int b = data[i + bandOffsets[2]] & 0xFF;
+                    black[x] = (r * 0.299) + (g * 0.587) + (b * 0.114) < BLACK_LUMINANCE;
+                }
+                return;
+            }
+            default:
+                int[] rgb = image.getRGB(0, y, width, 1, null, 0, width);
+                for (int x = 0; x < width; x++) {
+                    black[x] = isBlack(rgb[x]);
+                }
+        }
+    }
+
+    /**
+     * Whether an RGB value is black, with the luminance of
+     * <code>isBlack</code>.
+     */
+    private static boolean isBlack(int rgb) {
+        int r = (rgb >> 16) & 0xff;
+        int g = (rgb >> 8) & 0xff;
+        int b = rgb & 0xff;
+        return (r * 0.299) + (g * 0.587) + (b * 0.114) < BLACK_LUMINANCE;
+    }
+
+    /**
+     * Maps the gray levels of an image to whether they are black, through its
+     * color model as <code>getRGB</code> does.
+     *
+     * @param image source image
+     * @return the table, or <code>null</code> if the image is not gray
+     */
+    static boolean[] getBlackGrayTable(BufferedImage image) {
+        if (image.getType() != BufferedImage.TYPE_BYTE_GRAY) {
+            return null;
+        }
+        ColorModel cm = image.getColorModel();
+        boolean[] lut = new boolean[256];
+        byte[] pixel = new byte[1];
+        for (int v = 0; v < 256; v++) {
+            pixel[0] = (byte) v;
+            lut[v] = isBlack(cm.getRGB(pixel));
+        }
+        return lut;
+    }
+
     /**
      * Rotates image.
      * 
@@ -18,9 +18,12 @@ package net.sourceforge.tess4j;
 import java.awt.Rectangle;
 import java.awt.image.BufferedImage;
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
 import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import javax.imageio.IIOImage;
 import net.sourceforge.tess4j.util.ImageIOHelper;
 
@@ -71,6 +74,40 @@ public interface ITesseract {
      */
     String doOCR(File imageFile, List<Rectangle> rects) throws TesseractException;
 
+    /**
+     * Performs OCR operation on selected pages. Pages that are not selected
+     * are not decoded.
+     *
+     * @param imageFile an image file
+     * @param pages pages to recognize
+     * @return the recognized text
+     * @throws TesseractException
+     */
+    default String doOCR(File imageFile, PageSelection pages) throws TesseractException {
+        return doOCR(imageFile, pages, null);
+    }
+
+    /**
+     * Performs OCR operation on selected pages. Pages that are not selected
+     * are not decoded.
+     *
+     * @param imageFile an image file
+     * @param pages pages to recognize
+     * @param rects list of the bounding rectangles defines the regions of the
+     * image to be recognized. A rectangle of zero dimension or
+     * <code>null</code> indicates the whole image.
+     * @return the recognized text
+     * @throws TesseractException
+     * @throws UnsupportedOperationException if the implementation does not
+     * select pages and not all pages are selected
+     */
+    default String doOCR(File imageFile, PageSelection pages, List<Rectangle> rects) throws TesseractException {
+        if (pages == null || pages.isAll()) {
+            return doOCR(imageFile, rects);
+        }
+        throw new UnsupportedOperationException("Page selection is not supported by " + getClass().getName() + ".");
+    }
+
     /**
      * Performs OCR operation.
      *
@@ -119,7 +156,9 @@ public interface ITesseract {
      *
      * @param xsize width of image
      * @param ysize height of image
-     * @param buf pixel data
+     * @param buf pixel data. The pixels are copied, so a pooled buffer, such
+     * as one from <code>ImageIOHelper.convertImageData</code>, can be released
+     * to its <code>DirectBufferPool</code> once this method returns.
      * @param bpp bits per pixel, represents the bit depth of the image, with 1
      * for binary bitmap, 8 for gray, and 24 for color RGB.
      * @param filename input file name. Needed only for training and reading a
@@ -132,6 +171,71 @@ public interface ITesseract {
      */
     String doOCR(int xsize, int ysize, ByteBuffer buf, int bpp, String filename, List<Rectangle> rects) throws TesseractException;
 
+    /**
+     * Performs OCR operation on an image held in memory, without writing it
+     * to a file.
+     *
+     * @param data image content. It can be any of the formats supported for
+     * files, including PDF
+     * @return the recognized text
+     * @throws TesseractException
+     */
+    default String doOCR(byte[] data) throws TesseractException {
+        return doOCR(ByteBuffer.wrap(data), null, null);
+    }
+
+    /**
+     * Performs OCR operation on an image held in memory, without writing it
+     * to a file.
+     *
+     * @param data image content, from the position to the limit of the
+     * buffer. It can be any of the formats supported for files, including PDF
+     * @return the recognized text
+     * @throws TesseractException
+     */
+    default String doOCR(ByteBuffer data) throws TesseractException {
+        return doOCR(data, null, null);
+    }
+
+    /**
+     * Performs OCR operation on an image read from a stream, without writing
+     * it to a file. A file stream is memory-mapped.
+     *
+     * @param in input stream, read to its end but not closed
+     * @param formatHint format name, such as "tiff" or "pdf", used when the
+     * format is not recognized from the content; <code>null</code> for none
+     * @return the recognized text
+     * @throws TesseractException
+     */
+    default String doOCR(InputStream in, String formatHint) throws TesseractException {
+        try {
+            return doOCR(ImageIOHelper.readByteBuffer(in), formatHint, null);
+        } catch (IOException e) {
+            throw new TesseractException(e);
+        }
+    }
+
+    /**
+     * Performs OCR operation on an image held in memory, without writing it
+     * to a file.
+     *
+     * @param data image content, from the position to the limit of the
+     * buffer, which is not modified. It can be any of the formats supported
+     * for files, including PDF
+     * @param formatHint format name, such as "tiff" or "pdf", used when the
+     * format is not recognized from the content; <code>null</code> for none
+     * @param rects list of the bounding rectangles defines the regions of the
+     * image to be recognized. A rectangle of zero dimension or
+     * <code>null</code> indicates the whole image.
+     * @return the recognized text
+     * @throws TesseractException
+     * @throws UnsupportedOperationException if the implementation does not
+     * read images from memory
+     */
+    default String doOCR(ByteBuffer data, String formatHint, List<Rectangle> rects) throws TesseractException {
+        throw new UnsupportedOperationException("OCR from memory is not supported by " + getClass().getName() + ".");
+    }
+
     /**
      * Sets tessdata path.
      *
@@ -200,6 +304,20 @@ public interface ITesseract {
      */
     void createDocuments(String[] filenames, String[] outputbases, List<RenderedFormat> formats) throws TesseractException;
 
+    /**
+     * Creates documents for given renderers from selected pages. Pages that
+     * are not selected are not decoded.
+     *
+     * @param filename input file
+     * @param outputbase output filename without extension
+     * @param formats types of renderers
+     * @param pages pages to recognize
+     * @throws TesseractException
+     */
+    default void createDocuments(String filename, String outputbase, List<RenderedFormat> formats, PageSelection pages) throws TesseractException {
+        createDocumentsWithResults(filename, outputbase, formats, -1, pages);
+    }
+
     /**
      * Creates documents with OCR result for given renderers at specified page
      * iterator level.
@@ -241,6 +359,28 @@ public interface ITesseract {
      */
     OCRResult createDocumentsWithResults(String filename, String outputbase, List<ITesseract.RenderedFormat> formats, int pageIteratorLevel) throws TesseractException;
 
+    /**
+     * Creates documents with OCR result for given renderers at specified page
+     * iterator level, from selected pages. Pages that are not selected are not
+     * decoded.
+     *
+     * @param filename input file
+     * @param outputbase output filename without extension
+     * @param formats types of renderer
+     * @param pageIteratorLevel TessPageIteratorLevel enum; -1 for no words
+     * @param pages pages to recognize
+     * @return OCR result
+     * @throws TesseractException
+     * @throws UnsupportedOperationException if the implementation does not
+     * select pages and not all pages are selected
+     */
+    default OCRResult createDocumentsWithResults(String filename, String outputbase, List<ITesseract.RenderedFormat> formats, int pageIteratorLevel, PageSelection pages) throws TesseractException {
+        if (pages == null || pages.isAll()) {
+            return createDocumentsWithResults(filename, outputbase, formats, pageIteratorLevel);
+        }
+        throw new UnsupportedOperationException("Page selection is not supported by " + getClass().getName() + ".");
+    }
+
     /**
      * Creates documents with OCR results for given renderers at specified page
      * iterator level.
@@ -254,6 +394,63 @@ public interface ITesseract {
      */
     List<OCRResult> createDocumentsWithResults(String[] filenames, String[] outputbases, List<ITesseract.RenderedFormat> formats, int pageIteratorLevel) throws TesseractException;
 
+    /**
+     * Creates documents with OCR result for given renderers at specified page
+     * iterator level, from an image held in memory.
+     *
+     * @param data image content
+     * @param outputbase output filename without extension
+     * @param formats types of renderer
+     * @param pageIteratorLevel TessPageIteratorLevel enum
+     * @return OCR result
+     * @throws TesseractException
+     */
+    default OCRResult createDocumentsWithResults(byte[] data, String outputbase, List<ITesseract.RenderedFormat> formats, int pageIteratorLevel) throws TesseractException {
+        return createDocumentsWithResults(ByteBuffer.wrap(data), null, outputbase, formats, pageIteratorLevel);
+    }
+
+    /**
+     * Creates documents with OCR result for given renderers at specified page
+     * iterator level, from an image read from a stream. A file stream is
+     * memory-mapped.
+     *
+     * @param in input stream, read to its end but not closed
+     * @param formatHint format name, used when the format is not recognized
+     * from the content; <code>null</code> for none
+     * @param outputbase output filename without extension
+     * @param formats types of renderer
+     * @param pageIteratorLevel TessPageIteratorLevel enum
+     * @return OCR result
+     * @throws TesseractException
+     */
+    default OCRResult createDocumentsWithResults(InputStream in, String formatHint, String outputbase, List<ITesseract.RenderedFormat> formats, int pageIteratorLevel) throws TesseractException {
+        try {
+            return createDocumentsWithResults(ImageIOHelper.readByteBuffer(in), formatHint, outputbase, formats, pageIteratorLevel);
+        } catch (IOException e) {
+            throw new TesseractException(e);
+        }
+    }
+
+    /**
+     * Creates documents with OCR result for given renderers at specified page
+     * iterator level, from an image held in memory.
+     *
+     * @param data image content, from the position to the limit of the
+     * buffer, which is not modified
+     * @param formatHint format name, used when the format is not recognized
+     * from the content; <code>null</code> for none
+     * @param outputbase output filename without extension
+     * @param formats types of renderer
+     * @param pageIteratorLevel TessPageIteratorLevel enum
+     * @return OCR result
+     * @throws TesseractException
+     * @throws UnsupportedOperationException if the implementation does not
+     * read images from memory
+     */
+    default OCRResult createDocumentsWithResults(ByteBuffer data, String formatHint, String outputbase, List<ITesseract.RenderedFormat> formats, int pageIteratorLevel) throws TesseractException {
+        throw new UnsupportedOperationException("Creating documents from memory is not supported by " + getClass().getName() + ".");
+    }
+
     /**
      * Gets segmented regions at specified page iterator level.
      *
@@ -297,4 +494,55 @@ public interface ITesseract {
      * @return image orientation and script name
      */
     OSDResult getOSD(BufferedImage bi);
+
+    /**
+     * Performs OCR operation asynchronously. Jobs on the same instance run one
+     * at a time on the shared <code>TesseractExecutor</code>.
+     *
+     * @param imageFile an image file
+     * @return a future of the recognized text
+     */
+    default CompletableFuture<String> doOCRAsync(File imageFile) {
+        return TesseractExecutor.getDefault().submit(this, () -> doOCR(imageFile));
+    }
+
+    /**
+     * Performs OCR operation asynchronously. Jobs on the same instance run one
+     * at a time on the shared <code>TesseractExecutor</code>.
+     *
+     * @param bi a buffered image
+     * @return a future of the recognized text
+     */
+    default CompletableFuture<String> doOCRAsync(BufferedImage bi) {
+        return TesseractExecutor.getDefault().submit(this, () -> doOCR(bi));
+    }
+
+    /**
+     * Gets recognized words at specified page iterator level asynchronously.
+     * Jobs on the same instance run one at a time on the shared
+     * <code>TesseractExecutor</code>.
+     *
+     * @param biList list of input buffered images
+     * @param pageIteratorLevel TessPageIteratorLevel enum
+     * @return a future of the list of <code>Word</code>
+     */
+    default CompletableFuture<List<Word>> getWordsAsync(List<BufferedImage> biList, int pageIteratorLevel) {
+        return TesseractExecutor.getDefault().submit(this, () -> getWords(biList, pageIteratorLevel));
+    }
+
+    /**
+     * Creates documents for given renderers asynchronously. Jobs on the same
+     * instance run one at a time on the shared <code>TesseractExecutor</code>.
+     *
+     * @param filenames array of input files
+     * @param outputbases array of output filenames without extension
+     * @param formats types of renderers
+     * @return a future that completes when the documents are created
+     */
+    default CompletableFuture<Void> createDocumentsAsync(String[] filenames, String[] outputbases, List<RenderedFormat> formats) {
+        return TesseractExecutor.getDefault().submit(this, () -> {
+            createDocuments(filenames, outputbases, formats);
+            return null;
+        });
+    }
 }
@@ -0,0 +1,203 @@
+/**
+ * Copyright @ 2026 Quan Nguyen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.sourceforge.tess4j;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Pages of a document to process, as ranges of page numbers. Page numbers
+ * start at 1. Pages that are not selected are never decoded or rendered;
+ * pages beyond the end of a document are ignored.
+ */
+public final class PageSelection {
+
+    private static final PageSelection ALL = new PageSelection(new int[][]{{1, Integer.MAX_VALUE}});
+
+    /**
+     * Ranges of page numbers, inclusive.
+     */
+    private final int[][] ranges;
+
+    private PageSelection(int[][] ranges) {
+        this.ranges = ranges;
+    }
+
+    /**
+     * Selects all pages.
+     *
+     * @return the selection
+     */
+    public static PageSelection all() {
+        return ALL;
+    }
+
+    /**
+     * Selects a range of pages.
+     *
+     * @param first first page number, from 1
+     * @param last last page number, inclusive
+     * @return the selection
+     */
+    public static PageSelection range(int first, int last) {
+        if (first < 1 || last < first) {
+            throw new IllegalArgumentException("Invalid page range: " + first + "-" + last);
+        }
+        return new PageSelection(new int[][]{{first, last}});
+    }
+
+    /**
+     * Selects the first pages of a document.
+     *
+     * @param count number of pages
+     * @return the selection
+     */
+    public static PageSelection first(int count) {
+        return range(1, count);
+    }
+
+    /**
+     * Selects individual pages.
+     *
+     * @param pageNums page numbers, from 1, in any order
+     * @return the selection
+     */
+    public static PageSelection of(int... pageNums) {
+        int[][] ranges = new int[pageNums.length][];
+        for (int i = 0; i < pageNums.length; i++) {
+            if (pageNums[i] < 1) {
+                throw new IllegalArgumentException("Invalid page number: " + pageNums[i]);
+            }
+            ranges[i] = new int[]{pageNums[i], pageNums[i]};
+        }
+        return new PageSelection(ranges);
+    }
+
+    /**
+     * Parses a selection such as "1-3,7,10-", in which a range without an end
+     * extends to the last page.
+     *
+     * @param spec comma-separated page numbers and ranges
+     * @return the selection
+     */
+    public static PageSelection parse(String spec) {
+        List<int[]> ranges = new ArrayList<>();
+        for (String part : spec.split(",")) {
+            part = part.trim();
+            if (part.isEmpty()) {
+                continue;
+            }
+            try {
+                int dash = part.indexOf('-');
+                int first, last;
+                if (dash < 0) {
+                    first = last = Integer.parseInt(part);
+                } else {
+                    first = Integer.parseInt(part.substring(0, dash).trim());
+                    String end = part.substring(dash + 1).trim();
+                    last = end.isEmpty() ? Integer.MAX_VALUE : Integer.parseInt(end);
+                }
+                ranges.add(range(first, last).ranges[0]);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid page selection: " + spec, e);
+            }
+        }
+        if (ranges.isEmpty()) {
+            throw new IllegalArgumentException("Empty page selection.");
+        }
+        return new PageSelection(ranges.toArray(new int[0][]));
+    }
+
+    /**
+     * Checks whether all pages are selected.
+     *
+     * @return true if all pages are selected
+     */
+    public boolean isAll() {
+        return this == ALL;
+    }
+
+    /**
+     * Checks whether a page is selected.
+     *
+     * @param pageNum page number, from 1
+     * @return true if selected
+     */
+    public boolean contains(int pageNum) {
+        for (int[] range : ranges) {
+            if (pageNum >= range[0] && pageNum <= range[1]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets the indices of the selected pages of a document, in page order.
+     *
+     * @param pageCount number of pages of the document
+     * @return zero-based page indices
+     */
+    public int[] getPageIndices(int pageCount) {
+        boolean[] selected = new boolean[pageCount];
+        int count = 0;
+        for (int[] range : ranges) {
+            for (int i = range[0] - 1; i < Math.min(range[1], pageCount); i++) {
+                if (!selected[i]) {
+                    selected[i] = true;
+                    count++;
+                }
+            }
+        }
+
+        int[] indices = new int[count];
+        for (int i = 0, j = 0; i < pageCount; i++) {
+            if (selected[i]) {
+                indices[j++] = i;
+            }
+        }
+        return indices;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (int[] range : ranges) {
+            if (sb.length() > 0) {
+                sb.append(',');
+            }
+            sb.append(range[0]);
+            if (range[1] != range[0]) {
+                sb.append('-');
+                if (range[1] != Integer.MAX_VALUE) {
+                    sb.append(range[1]);
+                }
+            }
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof PageSelection && Arrays.deepEquals(ranges, ((PageSelection) obj).ranges);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.deepHashCode(ranges);
+    }
+}
@@ -0,0 +1,138 @@
+/**
+ * Copyright @ 2026 Quan Nguyen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.sourceforge.tess4j;
+
+import java.awt.Rectangle;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.io.RandomAccessReadBufferedFile;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.apache.pdfbox.text.TextPosition;
+
+/**
+ * Extracts the text layer of the pages of a PDF document, so that
+ * born-digital pages need not be recognized.
+ */
+class PdfTextLayer implements Closeable {
+
+    /**
+     * Minimum number of letters and digits for a page to be taken as having a
+     * text layer.
+     */
+    static final int MIN_GLYPHS = 32;
+
+    private final PDDocument document;
+
+    /**
+     * Constructor. Opens a PDF document.
+     *
+     * @param inputPdfFile input file
+     * @throws IOException
+     */
+    PdfTextLayer(File inputPdfFile) throws IOException {
+        this.document = Loader.loadPDF(new RandomAccessReadBufferedFile(inputPdfFile));
+    }
+
+    /**
+     * Checks whether extracted text has enough real glyphs, as opposed to
+     * whitespace or characters without a Unicode mapping.
+     *
+     * @param text extracted text
+     * @return true if the page has a usable text layer
+     */
+    static boolean hasText(String text) {
+        int glyphs = 0;
+        for (int i = 0; i < text.length() && glyphs < MIN_GLYPHS; i++) {
+            char ch = text.charAt(i);
+            if (Character.isLetterOrDigit(ch) && ch != '\uFFFD') {
+                glyphs++;
+            }
+        }
+        return glyphs >= MIN_GLYPHS;
+    }
+
+    /**
+     * Gets the text of a page.
+     *
+     * @param pageIndex page index, zero-based
+     * @return the text, with lines separated by newlines
+     * @throws IOException
+     */
+    String getText(int pageIndex) throws IOException {
+        PDFTextStripper stripper = new PDFTextStripper();
+        stripper.setLineSeparator("\n");
+        return getText(stripper, pageIndex);
+    }
+
+    /**
+     * Gets the words of a page, with bounding boxes in pixels of the rendered
+     * page and full confidence.
+     *
+     * @param pageIndex page index, zero-based
+     * @param dpi resolution at which the page is rendered
+     * @return list of <code>Word</code>
+     * @throws IOException
+     */
+    List<Word> getWords(int pageIndex, int dpi) throws IOException {
+        float scale = dpi / 72f;
+        List<Word> words = new ArrayList<>();
+        PDFTextStripper stripper = new PDFTextStripper() {
+            @Override
+            protected void writeString(String text, List<TextPosition> textPositions) throws IOException {
+                if (text.trim().isEmpty() || textPositions.isEmpty()) {
+                    return;
+                }
+                float left = Float.MAX_VALUE, top = Float.MAX_VALUE, right = 0, bottom = 0;
+                for (TextPosition position : textPositions) {
+                    left = Math.min(left, position.getXDirAdj());
+                    top = Math.min(top, position.getYDirAdj() - position.getHeightDir());
+                    right = Math.max(right, position.getXDirAdj() + position.getWidthDirAdj());
+                    bottom = Math.max(bottom, position.getYDirAdj());
+                }
+                Rectangle box = new Rectangle(Math.round(left * scale), Math.round(top * scale),
+                        Math.round((right - left) * scale), Math.round((bottom - top) * scale));
+                words.add(new Word(text, 100, box));
+            }
+        };
+        getText(stripper, pageIndex);
+        return words;
+    }
+
+    private String getText(PDFTextStripper stripper, int pageIndex) throws IOException {
+        stripper.setStartPage(pageIndex + 1);
+        stripper.setEndPage(pageIndex + 1);
+        stripper.setSortByPosition(true);
+        StringWriter writer = new StringWriter();
+        stripper.writeText(document, writer);
+        return writer.toString();
+    }
+
+    /**
+     * Closes the document.
+     *
+     * @throws IOException
+     */
+    @Override
+    public void close() throws IOException {
+        document.close();
+    }
+}
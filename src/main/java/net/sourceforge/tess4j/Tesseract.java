@@ -15,6 +15,7 @@
  */
 package net.sourceforge.tess4j;
 
+import com.ochafik.lang.jnaerator.runtime.NativeSize;
 import com.sun.jna.Pointer;
 import com.sun.jna.StringArray;
 import com.sun.jna.ptr.PointerByReference;
@@ -26,9 +27,6 @@ import java.nio.FloatBuffer;
 import java.nio.IntBuffer;
 import java.util.*;
 import javax.imageio.IIOImage;
-import javax.imageio.ImageIO;
-import javax.imageio.ImageReader;
-import javax.imageio.stream.ImageInputStream;
 import net.sourceforge.lept4j.Box;
 import net.sourceforge.lept4j.Boxa;
 import static net.sourceforge.lept4j.ILeptonica.L_CLONE;
@@ -43,8 +41,14 @@ import net.sourceforge.tess4j.ITessAPI.TessOcrEngineMode;
 import net.sourceforge.tess4j.ITessAPI.TessPageIterator;
 import net.sourceforge.tess4j.ITessAPI.TessResultIterator;
 import net.sourceforge.tess4j.ITessAPI.TessResultRenderer;
+import net.sourceforge.tess4j.util.DeskewResult;
 import net.sourceforge.tess4j.util.ImageIOHelper;
 import net.sourceforge.tess4j.util.LoggHelper;
+import net.sourceforge.tess4j.util.PageSource;
+import net.sourceforge.tess4j.util.PdfPageRenderer;
+import net.sourceforge.tess4j.util.PixConverter;
+import net.sourceforge.tess4j.util.PixPreprocessor;
+import net.sourceforge.tess4j.util.PixSource;
 import org.slf4j.*;
 
 /**
@@ -61,13 +65,14 @@ import org.slf4j.*;
  * <code>jai-imageio</code>) are in its compile and run-time
  * <code>classpath</code>.
  */
-public class Tesseract implements ITesseract {
+public class Tesseract implements ITesseract, AutoCloseable {
 
     private String language = "eng";
     private String datapath;
     private int psm = -1;
     private int ocrEngineMode = TessOcrEngineMode.OEM_DEFAULT;
     private final Properties prop = new Properties();
+    private final Properties initProp = new Properties();
     private final List<String> configList = new ArrayList<>();
 
     private TessAPI api;
@@ -75,6 +80,16 @@ public class Tesseract implements ITesseract {
 
     private boolean alreadyInvoked;
 
+    private boolean persistent;
+    private boolean hybridPdf;
+    private boolean nativeDecode;
+    private boolean deskew;
+    private PixPreprocessor preprocessor;
+    // factor by which the preprocessor scaled the current image
+    private float roiScale = 1;
+    private List<Object> initSettings;
+    private int modCount;
+
     private static final org.slf4j.Logger logger = LoggerFactory.getLogger(new LoggHelper().toString());
 
     public Tesseract() {
@@ -115,6 +130,7 @@ public class Tesseract implements ITesseract {
     @Override
     public void setDatapath(String datapath) {
         this.datapath = datapath;
+        modCount++;
     }
 
     /**
@@ -125,6 +141,7 @@ public class Tesseract implements ITesseract {
     @Override
     public void setLanguage(String language) {
         this.language = language;
+        modCount++;
     }
 
     /**
@@ -135,6 +152,7 @@ public class Tesseract implements ITesseract {
     @Override
     public void setOcrEngineMode(int ocrEngineMode) {
         this.ocrEngineMode = ocrEngineMode;
+        modCount++;
     }
 
     /**
@@ -145,6 +163,7 @@ public class Tesseract implements ITesseract {
     @Override
     public void setPageSegMode(int mode) {
         this.psm = mode;
+        modCount++;
     }
 
     /**
@@ -158,6 +177,82 @@ public class Tesseract implements ITesseract {
     @Override
     public void setVariable(String key, String value) {
         prop.setProperty(key, value);
+        modCount++;
+    }
+
+    /**
+     * Sets the value of Tesseract's init-only parameter, which takes effect
+     * only when the engine is initialized.
+     *
+     * @param key variable name, e.g., <code>load_system_dawg</code>,
+     * <code>load_freq_dawg</code>, etc.
+     * @param value value for corresponding variable, e.g., "0", "1", "F",
+     * etc.
+     */
+    public void setInitVariable(String key, String value) {
+        initProp.setProperty(key, value);
+        modCount++;
+    }
+
+    /**
+     * Sets hybrid mode for PDF documents. Pages that carry an extractable text
+     * layer take their text from it, and only image-only pages are
+     * recognized. It applies to plain text output: <code>doOCR</code> without
+     * hOCR, ALTO, TSV or other structured output, and <code>TEXT</code>-only
+     * rendered formats. Pages are recognized as usual when regions of
+     * interest are given.
+     *
+     * @param hybridPdf true to use the text layer of PDF documents
+     */
+    public void setHybridPdf(boolean hybridPdf) {
+        this.hybridPdf = hybridPdf;
+        modCount++;
+    }
+
+    /**
+     * Sets native decoding of image files. TIFF, PNG, JPEG and PNM files are
+     * then decoded by Leptonica straight into native memory, rather than by
+     * Java ImageIO; other formats, and files Leptonica cannot read, still go
+     * through ImageIO.
+     *
+     * @param nativeDecode true to decode image files with Leptonica
+     */
+    public void setNativeDecode(boolean nativeDecode) {
+        this.nativeDecode = nativeDecode;
+        modCount++;
+    }
+
+    /**
+     * Sets deskewing of each page in memory before it is recognized. Pages
+     * skewed by more than 0.05 degrees are rotated straight, as by
+     * <code>ImageIOHelper.deskew</code>, without writing a deskewed copy of
+     * the input; regions of interest and the bounding boxes of words then
+     * refer to the deskewed page. Image files are decoded one page at a time
+     * rather than passed whole to Tesseract.
+     *
+     * @param deskew true to deskew pages
+     */
+    public void setDeskew(boolean deskew) {
+        this.deskew = deskew;
+        modCount++;
+    }
+
+    /**
+     * Sets native preprocessing of each page before it is recognized. Pages
+     * are converted to Leptonica images, if they are not decoded natively,
+     * and deskewed, binarized and scaled in native memory as the preprocessor
+     * is set up. Regions of interest are given on the page as it is and are
+     * scaled with it; the bounding boxes of words refer to the preprocessed
+     * page. With native decoding, the pages of
+     * TIFF, PNG, JPEG and PNM files never enter the Java heap. Image files
+     * are decoded one page at a time rather than passed whole to Tesseract.
+     *
+     * @param preprocessor the preprocessor; <code>null</code> for none, the
+     * default
+     */
+    public void setPreprocessor(PixPreprocessor preprocessor) {
+        this.preprocessor = preprocessor;
+        modCount++;
     }
 
     /**
@@ -172,6 +267,42 @@ public class Tesseract implements ITesseract {
         if (configs != null) {
             configList.addAll(configs);
         }
+        modCount++;
+    }
+
+    /**
+     * Gets the number of times the settings of this instance have been
+     * changed, so that a pool can tell whether a borrower changed them.
+     *
+     * @return modification count
+     */
+    int getModCount() {
+        return modCount;
+    }
+
+    /**
+     * Opens a long-lived session. The engine is initialized once and kept
+     * alive across calls, and is re-initialized only when datapath, language,
+     * OCR engine mode, configs or init-only variables change. Between images, the recognition
+     * results are cleared instead of deleting the engine. Call
+     * <code>close()</code> to release the native resources.
+     *
+     * @return this instance
+     */
+    public Tesseract open() {
+        persistent = true;
+        init();
+        return this;
+    }
+
+    /**
+     * Ends the long-lived session, if any, and releases all of the native
+     * resources used by this instance.
+     */
+    @Override
+    public void close() {
+        persistent = false;
+        dispose();
     }
 
     /**
@@ -186,48 +317,116 @@ public class Tesseract implements ITesseract {
      */
     @Override
     public String doOCR(File inputFile, List<Rectangle> rects) throws TesseractException {
-        try {
-            File imageFile = ImageIOHelper.getImageFile(inputFile);
-            String imageFileFormat = ImageIOHelper.getImageFileFormat(imageFile);
-            Iterator<ImageReader> readers = ImageIO.getImageReadersByFormatName(imageFileFormat);
-            if (!readers.hasNext()) {
-                throw new RuntimeException(ImageIOHelper.JAI_IMAGE_READER_MESSAGE);
+        return doOCR(inputFile, PageSelection.all(), rects);
+    }
+
+    /**
+     * Performs OCR operation on selected pages.
+     *
+     * @param inputFile an image file
+     * @param selection pages to recognize; the others are not decoded
+     * @param rects list of the bounding rectangles defines the regions of the
+     * image to be recognized. A rectangle of zero dimension or
+     * <code>null</code> indicates the whole image.
+     * @return the recognized text
+     * @throws TesseractException
+     */
+    @Override
+    public String doOCR(File inputFile, PageSelection selection, List<Rectangle> rects) throws TesseractException {
+        if (nativeDecode && PixSource.isSupported(inputFile)) {
+            PixSource pages = null;
+            try {
+                pages = PixSource.open(inputFile);
+            } catch (IOException e) {
+                logger.warn("Decoding with ImageIO: " + e.getMessage());
             }
-            ImageReader reader = readers.next();
-            StringBuilder result = new StringBuilder();
-            try (ImageInputStream iis = ImageIO.createImageInputStream(imageFile);) {
-                reader.setInput(iis);
-                int imageTotal = reader.getNumImages(true);
-
-                if ("pdf".equals(org.apache.commons.io.FilenameUtils.getExtension(inputFile.getName()).toLowerCase())) {
-                    setVariable("user_defined_dpi", "300");
+            if (pages != null) {
+                try {
+                    return doOCR(pages, selection.getPageIndices(pages.getPageCount()), inputFile.getPath(), rects);
+                } finally {
+                    pages.close();
                 }
+            }
+        }
 
-                init();
-                setVariables();
+        // the text layer covers whole pages, so regions are recognized
+        boolean textLayer = hybridPdf && !hasRegions(rects) && PdfPageRenderer.isPdf(inputFile) && isPlainTextOutput();
+        try (PageSource pages = PageSource.open(inputFile);
+                PdfTextLayer pdfText = textLayer ? new PdfTextLayer(inputFile) : null) {
+            return doOCR(pages, selection.isAll() ? null : selection.getPageIndices(pages.getPageCount()), pdfText, inputFile.getPath(), rects);
+        } catch (Exception e) {
+            logger.error(e.getMessage(), e);
+            throw new TesseractException(e);
+        }
+    }
 
-                for (int i = 0; i < imageTotal; i++) {
-                    IIOImage oimage = reader.readAll(i, reader.getDefaultReadParam());
-                    result.append(doOCR(oimage, inputFile.getPath(), rects, i + 1));
-                }
+    /**
+     * Performs OCR operation on an image held in memory, without writing it
+     * to a file.
+     *
+     * @param data image content, from the position to the limit of the
+     * buffer, which is not modified
+     * @param formatHint format name, used when the format is not recognized
+     * from the content; <code>null</code> for none
+     * @param rects list of the bounding rectangles defines the regions of the
+     * image to be recognized. A rectangle of zero dimension or
+     * <code>null</code> indicates the whole image.
+     * @return the recognized text
+     * @throws TesseractException
+     */
+    @Override
+    public String doOCR(ByteBuffer data, String formatHint, List<Rectangle> rects) throws TesseractException {
+        try (PageSource pages = PageSource.open(data, formatHint)) {
+            return doOCR(pages, null, null, null, rects);
+        } catch (Exception e) {
+            logger.error(e.getMessage(), e);
+            throw new TesseractException(e);
+        }
+    }
 
-                if (String.valueOf(TRUE).equals(prop.getProperty("tessedit_create_hocr"))) {
-                    result.insert(0, htmlBeginTag).append(htmlEndTag);
-                }
-            } finally {
-                // delete temporary TIFF image for PDF
-                if (imageFile != null && imageFile.exists() && imageFile != inputFile && imageFile.getName().startsWith("multipage") && imageFile.getName().endsWith(ImageIOHelper.TIFF_EXT)) {
-                    imageFile.delete();
+    /**
+     * Performs OCR operation on pages decoded one at a time, so that only the
+     * current page is held.
+     *
+     * @param pages the pages
+     * @param pageIndices indices of the pages to recognize; <code>null</code>
+     * for all
+     * @param pdfText text layer of a PDF document in hybrid mode;
+     * <code>null</code> for none
+     * @param filename input file name; <code>null</code> for none
+     * @param rects list of the bounding rectangles defines the regions of the
+     * images to be recognized. A rectangle of zero dimension or
+     * <code>null</code> indicates the whole image.
+     * @return the recognized text
+     * @throws IOException
+     * @throws TesseractException
+     */
+    private String doOCR(PageSource pages, int[] pageIndices, PdfTextLayer pdfText, String filename, List<Rectangle> rects) throws IOException, TesseractException {
+        StringBuilder result = new StringBuilder();
+
+        init();
+        setVariables();
+
+        try {
+            for (int k = 0; pageIndices != null ? k < pageIndices.length : pages.hasPage(k); k++) {
+                int i = pageIndices != null ? pageIndices[k] : k;
+                String text = pdfText != null ? pdfText.getText(i) : null;
+                if (text != null && PdfTextLayer.hasText(text)) {
+                    // born-digital page; no need to recognize
+                    result.append(text);
+                } else {
+                    result.append(doOCR(pages.getPage(i), filename, rects, i + 1));
                 }
-                reader.dispose();
-                dispose();
             }
 
-            return result.toString();
-        } catch (Exception e) {
-            logger.error(e.getMessage(), e);
-            throw new TesseractException(e);
+            if (String.valueOf(TRUE).equals(prop.getProperty("tessedit_create_hocr"))) {
+                result.insert(0, htmlBeginTag).append(htmlEndTag);
+            }
+        } finally {
+            dispose();
         }
+
+        return result.toString();
     }
 
     /**
@@ -286,11 +485,11 @@ public class Tesseract implements ITesseract {
      * @return the recognized text
      * @throws TesseractException
      */
-    private String doOCR(IIOImage oimage, String filename, List<Rectangle> rois, int pageNum) throws TesseractException {
+    String doOCR(IIOImage oimage, String filename, List<Rectangle> rois, int pageNum) throws TesseractException {
         StringBuilder sb = new StringBuilder();
 
         try {
-            setImage(oimage.getRenderedImage());
+            setImage(oimage.getRenderedImage(), ImageIOHelper.getResolution(oimage));
             if (rois != null && !rois.isEmpty()) {
                 for (Rectangle rect : rois) {
                     setROI(rect);
@@ -307,6 +506,83 @@ public class Tesseract implements ITesseract {
         return sb.toString();
     }
 
+    /**
+     * Performs OCR operation on pages decoded natively.
+     *
+     * @param pages the pages
+     * @param pageIndices indices of the pages to recognize
+     * @param filename input file name
+     * @param rois list of the bounding rectangles defines the regions of the
+     * images to be recognized. A rectangle of zero dimension or
+     * <code>null</code> indicates the whole image.
+     * @return the recognized text
+     * @throws TesseractException
+     */
+    private String doOCR(PixSource pages, int[] pageIndices, String filename, List<Rectangle> rois) throws TesseractException {
+        init();
+        setVariables();
+
+        try {
+            StringBuilder sb = new StringBuilder();
+            for (int i : pageIndices) {
+                Pix pix = null;
+                try {
+                    pix = pages.getPage(i);
+                    sb.append(doOCR(pix, filename, rois, i + 1));
+                } catch (IOException ioe) {
+                    // skip the problematic page
+                    logger.warn(ioe.getMessage(), ioe);
+                } finally {
+                    LeptUtils.dispose(pix);
+                }
+            }
+
+            if (String.valueOf(TRUE).equals(prop.getProperty("tessedit_create_hocr"))) {
+                sb.insert(0, htmlBeginTag).append(htmlEndTag);
+            }
+
+            return sb.toString();
+        } finally {
+            dispose();
+        }
+    }
+
+    /**
+     * Performs OCR operation on a page. Its resolution is taken from the
+     * <code>Pix</code>, or is the default if the <code>Pix</code> has none.
+     * <br>
+     * Note: <code>init()</code> and <code>setTessVariables()</code> must be
+     * called before use; <code>dispose()</code> should be called afterwards.
+     *
+     * @param pix a Leptonica image
+     * @param filename input file name
+     * @param rois list of the bounding rectangles defines the regions of the
+     * image to be recognized. A rectangle of zero dimension or
+     * <code>null</code> indicates the whole image.
+     * @param pageNum page number
+     * @return the recognized text
+     */
+    String doOCR(Pix pix, String filename, List<Rectangle> rois, int pageNum) {
+        StringBuilder sb = new StringBuilder();
+        DeskewResult<Pix> deskewed = deskew ? ImageIOHelper.deskew(pix) : null;
+        try {
+            setImage(deskewed != null ? deskewed.getImage() : pix);
+        } finally {
+            if (deskewed != null && deskewed.isRotated()) {
+                LeptUtils.dispose(deskewed.getImage());
+            }
+        }
+        if (rois != null && !rois.isEmpty()) {
+            for (Rectangle rect : rois) {
+                setROI(rect);
+                sb.append(getOCRText(filename, pageNum));
+            }
+        } else {
+            sb.append(getOCRText(filename, pageNum));
+        }
+        return sb.toString();
+    }
+
     /**
      * Performs OCR operation. Use <code>SetImage</code>, (optionally)
      * <code>SetRectangle</code>, and one or more of the <code>Get*Text</code>
@@ -354,17 +630,45 @@ public class Tesseract implements ITesseract {
      * Initializes Tesseract engine.
      */
     protected void init() {
+        List<Object> settings = Arrays.asList(datapath, language, ocrEngineMode, new ArrayList<>(configList), new HashMap<>(initProp));
+        if (persistent && handle != null) {
+            if (settings.equals(initSettings)) {
+                if (psm > -1) {
+                    api.TessBaseAPISetPageSegMode(handle, psm);
+                }
+                return;
+            }
+            // settings have changed; re-create the engine
+            api.TessBaseAPIDelete(handle);
+            handle = null;
+            initSettings = null;
+        }
+
         api = TessAPI.INSTANCE;
         handle = api.TessBaseAPICreate();
         StringArray sarray = new StringArray(configList.toArray(new String[0]));
         PointerByReference configs = new PointerByReference();
         configs.setPointer(sarray);
-        api.TessBaseAPIInit1(handle, datapath, language, ocrEngineMode, configs, configList.size());
+        if (initProp.isEmpty()) {
+            api.TessBaseAPIInit1(handle, datapath, language, ocrEngineMode, configs, configList.size());
+        } else {
+            String[] keys = initProp.stringPropertyNames().toArray(new String[0]);
+            String[] values = new String[keys.length];
+            for (int i = 0; i < keys.length; i++) {
+                values[i] = initProp.getProperty(keys[i]);
+            }
+            PointerByReference varsVec = new PointerByReference();
+            varsVec.setPointer(new StringArray(keys));
+            PointerByReference varsValues = new PointerByReference();
+            varsValues.setPointer(new StringArray(values));
+            api.TessBaseAPIInit4(handle, datapath, language, ocrEngineMode, configs, configList.size(), varsVec, varsValues, new NativeSize(keys.length), FALSE);
+        }
         if (psm > -1) {
             api.TessBaseAPISetPageSegMode(handle, psm);
         }
                 
         validateDatapathAndLanguagePacks();
+        initSettings = settings;
     }
     
     /**
@@ -416,15 +720,48 @@ public class Tesseract implements ITesseract {
      * @throws java.io.IOException
      */
     protected void setImage(RenderedImage image) throws IOException {
+        setImage(image, 0);
+    }
+
+    /**
+     * Sets image to be processed, at its resolution.
+     *
+     * @param image a rendered image
+     * @param dpi resolution of the image; 0 if unknown
+     * @throws java.io.IOException
+     */
+    private void setImage(RenderedImage image, int dpi) throws IOException {
         Pix pix = null;
         try {
-            pix = LeptUtils.convertImageToPix((BufferedImage) image);
-            api.TessBaseAPISetImage2(handle, pix);
+            pix = PixConverter.convertImageToPix(deskew((BufferedImage) image));
+            if (dpi > 0) {
+                Leptonica1.pixSetResolution(pix, dpi, dpi);
+            }
+            setImage(pix);
         } finally {
             LeptUtils.dispose(pix);
         }
     }
 
+    /**
+     * Sets a Leptonica image to be processed, preprocessed if a preprocessor
+     * is set, and its resolution.
+     *
+     * @param pix a Leptonica image, which is not modified
+     */
+    private void setImage(Pix pix) {
+        Pix page = preprocess(pix);
+        try {
+            api.TessBaseAPISetImage2(handle, page);
+            roiScale = preprocessor != null ? preprocessor.getScaleFactor(Leptonica1.pixGetXRes(pix)) : 1;
+            setSourceResolution(Leptonica1.pixGetXRes(page));
+        } finally {
+            if (page != pix) {
+                LeptUtils.dispose(page);
+            }
+        }
+    }
+
     /**
      * Sets image to be processed.
      * <br>
@@ -445,15 +782,61 @@ public class Tesseract implements ITesseract {
         int bytespp = bpp / 8;
         int bytespl = (int) Math.ceil(xsize * bpp / 8.0);
         api.TessBaseAPISetImage(handle, buf, xsize, ysize, bytespp, bytespl);
+        roiScale = 1;
+        setSourceResolution(0);
     }
 
     /**
-     * Sets region of interest.
+     * Sets the resolution of the image being processed, so that Tesseract
+     * does not have to estimate it. Must follow <code>setImage</code>, which
+     * resets it.
      *
-     * @param rect region of interest
+     * @param dpi resolution in dots per inch; 0 if unknown, for the default
+     * resolution of <code>ImageIOHelper</code>
+     */
+    private void setSourceResolution(int dpi) {
+        if (dpi <= 0) {
+            dpi = ImageIOHelper.getDefaultResolution();
+        }
+        if (dpi > 0) {
+            api.TessBaseAPISetSourceResolution(handle, dpi);
+        }
+    }
+
+    /**
+     * Deskews a page if deskewing is set.
+     *
+     * @param bi page image
+     * @return the deskewed page, or the page itself
+     */
+    private BufferedImage deskew(BufferedImage bi) {
+        return deskew ? ImageIOHelper.deskew(bi).getImage() : bi;
+    }
+
+    /**
+     * Preprocesses a page if a preprocessor is set.
+     *
+     * @param pix page image
+     * @return a new preprocessed page, or the page itself
+     */
+    private Pix preprocess(Pix pix) {
+        return preprocessor != null ? preprocessor.process(pix) : pix;
+    }
+
+    /**
+     * Sets region of interest, scaled as the image was by the preprocessor.
+     *
+     * @param rect region of interest on the image as it was given
      */
     protected void setROI(Rectangle rect) {
         if (rect != null && !rect.isEmpty()) {
+            if (roiScale != 1) {
+                int left = Math.round(rect.x * roiScale);
+                int top = Math.round(rect.y * roiScale);
+                int right = Math.round((rect.x + rect.width) * roiScale);
+                int bottom = Math.round((rect.y + rect.height) * roiScale);
+                rect = new Rectangle(left, top, right - left, bottom - top);
+            }
             api.TessBaseAPISetRectangle(handle, rect.x, rect.y, rect.width, rect.height);
         }
     }
@@ -494,6 +877,50 @@ public class Tesseract implements ITesseract {
         return str;
     }
 
+    /**
+     * Checks whether any region of interest is given.
+     *
+     * @param rects list of the bounding rectangles; <code>null</code> for none
+     * @return true if a rectangle of non-zero dimension is given
+     */
+    private static boolean hasRegions(List<Rectangle> rects) {
+        if (rects != null) {
+            for (Rectangle rect : rects) {
+                if (rect != null && !rect.isEmpty()) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether the recognized text is requested as plain text, rather
+     * than as one of the structured outputs.
+     *
+     * @return true for plain text output
+     */
+    private boolean isPlainTextOutput() {
+        for (String key : new String[]{"tessedit_create_hocr", "tessedit_write_unlv", "tessedit_create_alto", "tessedit_create_page_xml", "tessedit_create_lstmbox", "tessedit_create_tsv", "tessedit_create_wordstrbox"}) {
+            if (String.valueOf(TRUE).equals(prop.getProperty(key))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether a document is created in hybrid mode, which requires a
+     * PDF input and text as the only output format.
+     *
+     * @param inputFile input file
+     * @param formats types of renderer
+     * @return true for hybrid mode
+     */
+    private boolean isHybridPdf(File inputFile, List<RenderedFormat> formats) {
+        return hybridPdf && PdfPageRenderer.isPdf(inputFile) && !formats.isEmpty() && Collections.frequency(formats, RenderedFormat.TEXT) == formats.size();
+    }
+
     /**
      * Creates renderers for given formats.
      *
@@ -605,23 +1032,12 @@ public class Tesseract implements ITesseract {
         try {
             for (int i = 0; i < filenames.length; i++) {
                 File inputFile = new File(filenames[i]);
-                File imageFile = null;
 
                 try {
-                    // if PDF, convert to multi-page TIFF
-                    imageFile = ImageIOHelper.getImageFile(inputFile);
-
-                    TessResultRenderer renderer = createRenderers(outputbases[i], formats);
-                    createDocuments(imageFile.getPath(), renderer);
-                    api.TessDeleteResultRenderer(renderer);
+                    createDocuments(inputFile, outputbases[i], formats, -1, PageSelection.all());
                 } catch (Exception e) {
                     // skip the problematic image file
                     logger.warn(e.getMessage(), e);
-                } finally {
-                    // delete temporary TIFF image for PDF
-                    if (imageFile != null && imageFile.exists() && imageFile != inputFile && imageFile.getName().startsWith("multipage") && imageFile.getName().endsWith(ImageIOHelper.TIFF_EXT)) {
-                        imageFile.delete();
-                    }
                 }
             }
         } finally {
@@ -647,6 +1063,121 @@ public class Tesseract implements ITesseract {
         return api.TessBaseAPIMeanTextConf(handle);
     }
 
+    /**
+     * Creates documents for given renderer from pages decoded in Java, such as
+     * those of a PDF document, which are rendered in memory.
+     *
+     * @param pages the pages
+     * @param pageIndices indices of the pages to recognize; <code>null</code>
+     * for all
+     * @param filename input file name; <code>null</code> for none
+     * @param renderer renderer
+     * @return the average text confidence for Tesseract page result
+     * @throws IOException
+     */
+    private int createDocuments(PageSource pages, int[] pageIndices, String filename, TessResultRenderer renderer) throws IOException {
+        if (filename != null) {
+            api.TessBaseAPISetInputName(handle, filename);
+        }
+        String title = api.TessBaseAPIGetStringVariable(handle, DOCUMENT_TITLE);
+        api.TessResultRendererBeginDocument(renderer, title);
+        for (int k = 0; pageIndices != null ? k < pageIndices.length : pages.hasPage(k); k++) {
+            int i = pageIndices != null ? pageIndices[k] : k;
+            IIOImage oimage = pages.getPage(i);
+            int dpi = ImageIOHelper.getResolution(oimage);
+            if (dpi <= 0) {
+                dpi = ImageIOHelper.getDefaultResolution();
+            }
+            Pix pix = PixConverter.convertImageToPix(deskew((BufferedImage) oimage.getRenderedImage()));
+            try {
+                if (dpi > 0) {
+                    Leptonica1.pixSetResolution(pix, dpi, dpi);
+                }
+                Pix page = preprocess(pix);
+                try {
+                    api.TessBaseAPIProcessPage(handle, page, i, filename, null, 0, renderer);
+                } finally {
+                    if (page != pix) {
+                        LeptUtils.dispose(page);
+                    }
+                }
+            } finally {
+                LeptUtils.dispose(pix);
+            }
+        }
+        api.TessResultRendererEndDocument(renderer);
+
+        return api.TessBaseAPIMeanTextConf(handle);
+    }
+
+    /**
+     * Creates a text document from a PDF document, taking the text of pages
+     * that have a text layer and recognizing the other pages. The output
+     * follows that of the text renderer.
+     *
+     * @param inputFile PDF file
+     * @param outputbase output filename without extension
+     * @param pageIteratorLevel TessPageIteratorLevel enum of the words to
+     * return; -1 for none
+     * @param selection pages to include
+     * @return OCR result, in which text layer pages have full confidence
+     * @throws IOException
+     */
+    private OCRResult createTextDocument(File inputFile, String outputbase, int pageIteratorLevel, PageSelection selection) throws IOException {
+        String pageSeparator = api.TessBaseAPIGetStringVariable(handle, PAGE_SEPARATOR);
+        StringBuilder sb = new StringBuilder();
+        List<Word> words = new ArrayList<>();
+        int totalConfidence = 0;
+        int pageCount;
+
+        try (PdfPageRenderer pdf = new PdfPageRenderer(inputFile);
+                PdfTextLayer pdfText = new PdfTextLayer(inputFile)) {
+            int[] pageIndices = selection.getPageIndices(pdf.getPageCount());
+            pageCount = pageIndices.length;
+            for (int k = 0; k < pageCount; k++) {
+                int i = pageIndices[k];
+                String text = pdfText.getText(i);
+                // word boxes of the text layer are available at word level only
+                if (PdfTextLayer.hasText(text) && (pageIteratorLevel < 0 || pageIteratorLevel == ITessAPI.TessPageIteratorLevel.RIL_WORD)) {
+                    sb.append(text);
+                    totalConfidence += 100;
+                    if (pageIteratorLevel >= 0) {
+                        // boxes at the resolution of the page as preprocessed
+                        int dpi = pdf.getDpi(i);
+                        if (preprocessor != null) {
+                            dpi = Math.round(dpi * preprocessor.getScaleFactor(dpi));
+                        }
+                        words.addAll(pdfText.getWords(i, dpi));
+                    }
+                } else {
+                    IIOImage oimage = pdf.getPage(i);
+                    setImage(oimage.getRenderedImage(), ImageIOHelper.getResolution(oimage));
+                    api.TessBaseAPISetInputName(handle, inputFile.getPath());
+                    Pointer textPtr = api.TessBaseAPIGetUTF8Text(handle);
+                    sb.append(textPtr.getString(0));
+                    api.TessDeleteText(textPtr);
+                    totalConfidence += api.TessBaseAPIMeanTextConf(handle);
+                    if (pageIteratorLevel >= 0) {
+                        words.addAll(getRecognizedWords(pageIteratorLevel));
+                    }
+                }
+
+                if (pageSeparator != null) {
+                    sb.append(pageSeparator);
+                }
+                if (pageIteratorLevel >= 0 && k < pageCount - 1) {
+                    words.add(new Word(pageSeparator, 100, new Rectangle())); // add page separator
+                }
+            }
+        }
+
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(outputbase + ".txt"), "UTF-8")) {
+            writer.write(sb.toString());
+        }
+
+        return new OCRResult(pageCount == 0 ? 0 : totalConfidence / pageCount, words);
+    }
+
     /**
      * Creates documents for given renderer.
      *
@@ -657,12 +1188,20 @@ public class Tesseract implements ITesseract {
      * @throws Exception
      */
     private int createDocuments(BufferedImage bi, String filename, TessResultRenderer renderer) throws Exception {
-        Pix pix = LeptUtils.convertImageToPix(bi);
-        String title = api.TessBaseAPIGetStringVariable(handle, DOCUMENT_TITLE);
-        api.TessResultRendererBeginDocument(renderer, title);
-        int result = api.TessBaseAPIProcessPage(handle, pix, 0, filename, null, 0, renderer);
-        api.TessResultRendererEndDocument(renderer);
-        LeptUtils.dispose(pix);
+        Pix pix = PixConverter.convertImageToPix(deskew(bi));
+        Pix page = null;
+        try {
+            page = preprocess(pix);
+            String title = api.TessBaseAPIGetStringVariable(handle, DOCUMENT_TITLE);
+            api.TessResultRendererBeginDocument(renderer, title);
+            int result = api.TessBaseAPIProcessPage(handle, page, 0, filename, null, 0, renderer);
+            api.TessResultRendererEndDocument(renderer);
+        } finally {
+            if (page != pix) {
+                LeptUtils.dispose(page);
+            }
+            LeptUtils.dispose(pix);
+        }
 
 //        if (result == ITessAPI.FALSE) {
 //            throw new TesseractException("Error during processing page.");
@@ -725,6 +1264,22 @@ public class Tesseract implements ITesseract {
      */
     @Override
     public List<Word> getWords(List<BufferedImage> biList, int pageIteratorLevel) {
+        List<IIOImage> pages = new ArrayList<>();
+        for (BufferedImage bi : biList) {
+            pages.add(new IIOImage(bi, null, null));
+        }
+        return getPageWords(pages, pageIteratorLevel);
+    }
+
+    /**
+     * Gets recognized words at specified page iterator level from pages, each
+     * at the resolution recorded in its metadata.
+     *
+     * @param pages list of <code>IIOImage</code> objects
+     * @param pageIteratorLevel TessPageIteratorLevel enum
+     * @return list of <code>Word</code>
+     */
+    private List<Word> getPageWords(List<IIOImage> pages, int pageIteratorLevel) {
         if (!alreadyInvoked) {
             this.init();
             this.setVariables();
@@ -734,8 +1289,8 @@ public class Tesseract implements ITesseract {
         List<Word> words = new ArrayList<>();
 
         try {
-            for (BufferedImage bi : biList) {
-                setImage(bi);
+            for (IIOImage oimage : pages) {
+                setImage(oimage.getRenderedImage(), ImageIOHelper.getResolution(oimage));
 
                 api.TessBaseAPIRecognize(handle, null);
                 TessResultIterator ri = api.TessBaseAPIGetIterator(handle);
@@ -893,25 +1448,12 @@ public class Tesseract implements ITesseract {
         try {
             for (int i = 0; i < filenames.length; i++) {
                 File inputFile = new File(filenames[i]);
-                File imageFile = null;
 
                 try {
-                    // if PDF, convert to multi-page TIFF
-                    imageFile = ImageIOHelper.getImageFile(inputFile);
-
-                    TessResultRenderer renderer = createRenderers(outputbases[i], formats);
-                    int meanTextConfidence = createDocuments(imageFile.getPath(), renderer);
-                    api.TessDeleteResultRenderer(renderer);
-                    List<Word> words = meanTextConfidence > 0 ? getRecognizedWords(imageFile, pageIteratorLevel) : new ArrayList<>();
-                    results.add(new OCRResult(meanTextConfidence, words));
+                    results.add(createDocuments(inputFile, outputbases[i], formats, pageIteratorLevel, PageSelection.all()));
                 } catch (Exception e) {
                     // skip the problematic image file
                     logger.warn(e.getMessage(), e);
-                } finally {
-                    // delete temporary TIFF image for PDF
-                    if (imageFile != null && imageFile.exists() && imageFile != inputFile && imageFile.getName().startsWith("multipage") && imageFile.getName().endsWith(ImageIOHelper.TIFF_EXT)) {
-                        imageFile.delete();
-                    }
                 }
             }
         } finally {
@@ -921,6 +1463,110 @@ public class Tesseract implements ITesseract {
         return results;
     }
 
+    /**
+     * Creates documents with OCR result for given renderers at specified page
+     * iterator level, from selected pages.
+     *
+     * @param filename input file
+     * @param outputbase output filename without extension
+     * @param formats types of renderer
+     * @param pageIteratorLevel TessPageIteratorLevel enum; -1 for no words
+     * @param selection pages to recognize; the others are not decoded
+     * @return OCR result
+     * @throws TesseractException
+     */
+    @Override
+    public OCRResult createDocumentsWithResults(String filename, String outputbase, List<ITesseract.RenderedFormat> formats, int pageIteratorLevel, PageSelection selection) throws TesseractException {
+        init();
+        setVariables();
+
+        try {
+            return createDocuments(new File(filename), outputbase, formats, pageIteratorLevel, selection);
+        } catch (Exception e) {
+            // skip the problematic image file
+            logger.warn(e.getMessage(), e);
+            return null;
+        } finally {
+            dispose();
+        }
+    }
+
+    /**
+     * Creates documents for given renderers from an input file.
+     * <br>
+     * Image files are passed whole to Tesseract, which decodes them itself;
+     * PDF documents, image files of which only some pages are selected, and
+     * image files to deskew or preprocess are decoded in Java one selected
+     * page at a time.
+     *
+     * @param inputFile input file
+     * @param outputbase output filename without extension
+     * @param formats types of renderer
+     * @param pageIteratorLevel TessPageIteratorLevel enum; -1 for no words
+     * @param selection pages to recognize
+     * @return OCR result
+     * @throws Exception
+     */
+    private OCRResult createDocuments(File inputFile, String outputbase, List<RenderedFormat> formats, int pageIteratorLevel, PageSelection selection) throws Exception {
+        if (isHybridPdf(inputFile, formats)) {
+            return createTextDocument(inputFile, outputbase, pageIteratorLevel, selection);
+        }
+
+        boolean decode = PdfPageRenderer.isPdf(inputFile) || !selection.isAll() || deskew || preprocessor != null;
+        try (PageSource pages = decode ? PageSource.open(inputFile) : null) {
+            int[] pageIndices = decode && !selection.isAll() ? selection.getPageIndices(pages.getPageCount()) : null;
+            TessResultRenderer renderer = createRenderers(outputbase, formats);
+            int meanTextConfidence = decode
+                    ? createDocuments(pages, pageIndices, inputFile.getPath(), renderer)
+                    : createDocuments(inputFile.getPath(), renderer);
+            api.TessDeleteResultRenderer(renderer);
+
+            List<Word> words;
+            if (pageIteratorLevel < 0 || meanTextConfidence <= 0) {
+                words = new ArrayList<>();
+            } else if (decode) {
+                words = getRecognizedWords(pages, pageIndices, pageIteratorLevel);
+            } else {
+                words = getRecognizedWords(inputFile, pageIteratorLevel);
+            }
+            return new OCRResult(meanTextConfidence, words);
+        }
+    }
+
+    /**
+     * Creates documents with OCR result for given renderers at specified page
+     * iterator level, from an image held in memory.
+     *
+     * @param data image content, from the position to the limit of the
+     * buffer, which is not modified
+     * @param formatHint format name, used when the format is not recognized
+     * from the content; <code>null</code> for none
+     * @param outputbase output filename without extension
+     * @param formats types of renderer
+     * @param pageIteratorLevel TessPageIteratorLevel enum
+     * @return OCR result
+     * @throws TesseractException
+     */
+    @Override
+    public OCRResult createDocumentsWithResults(ByteBuffer data, String formatHint, String outputbase, List<ITesseract.RenderedFormat> formats, int pageIteratorLevel) throws TesseractException {
+        init();
+        setVariables();
+
+        try (PageSource pages = PageSource.open(data, formatHint)) {
+            TessResultRenderer renderer = createRenderers(outputbase, formats);
+            int meanTextConfidence = createDocuments(pages, null, null, renderer);
+            api.TessDeleteResultRenderer(renderer);
+            List<Word> words = meanTextConfidence > 0 ? getRecognizedWords(pages, null, pageIteratorLevel) : new ArrayList<>();
+            return new OCRResult(meanTextConfidence, words);
+        } catch (Exception e) {
+            // skip the problematic image
+            logger.warn(e.getMessage(), e);
+            return null;
+        } finally {
+            dispose();
+        }
+    }
+
     /**
      * Gets the detected orientation of the input image and apparent script
      * (alphabet).
@@ -930,11 +1576,8 @@ public class Tesseract implements ITesseract {
      */
     @Override
     public OSDResult getOSD(File imageFile) {
-        try {
-            // if PDF, convert to multi-page TIFF
-            imageFile = ImageIOHelper.getImageFile(imageFile);
-            BufferedImage bi = ImageIO.read(new FileInputStream(imageFile));
-            return getOSD(bi);
+        try (PageSource pages = PageSource.open(imageFile)) {
+            return getOSD((BufferedImage) pages.getPage(0).getRenderedImage());
         } catch (IOException e) {
             logger.warn(e.getMessage(), e);
         }
@@ -956,6 +1599,7 @@ public class Tesseract implements ITesseract {
 
         try {
             api.TessBaseAPIInit3(handle, datapath, "osd");
+            initSettings = null; // engine now holds OSD data only
             setImage(bi);
 
             IntBuffer orient_degB = IntBuffer.allocate(1);
@@ -1033,34 +1677,53 @@ public class Tesseract implements ITesseract {
      * @return list of <code>Word</code>
      */
     private List<Word> getRecognizedWords(File inputFile, int pageIteratorLevel) {
-        List<Word> words = new ArrayList<>();
-
-        try {
-            List<BufferedImage> biList = ImageIOHelper.getImageList(inputFile);
-
-            if (biList.isEmpty()) {
-                return words;
-            } else if (biList.size() == 1) {
-                return getRecognizedWords(pageIteratorLevel);
-            } else {
-                alreadyInvoked = true;
-                return getWords(biList, pageIteratorLevel);
-            }
+        try (PageSource pages = PageSource.open(inputFile)) {
+            return getRecognizedWords(pages, null, pageIteratorLevel);
         } catch (IOException e) {
             logger.warn(e.getMessage(), e);
+        }
+
+        return new ArrayList<>();
+    }
+
+    /**
+     * Gets result words at specified page iterator level from pages. For
+     * multi-page images, it reruns recognition, doubling processing time.
+     *
+     * @param pages the pages
+     * @param pageIndices indices of the pages; <code>null</code> for all
+     * @param pageIteratorLevel TessPageIteratorLevel enum
+     * @return list of <code>Word</code>
+     */
+    private List<Word> getRecognizedWords(PageSource pages, int[] pageIndices, int pageIteratorLevel) {
+        List<IIOImage> images = pages.asPageList(pageIndices);
+        if (images.isEmpty()) {
+            return new ArrayList<>();
+        } else if (images.size() == 1) {
+            return getRecognizedWords(pageIteratorLevel);
+        }
+
+        try {
+            alreadyInvoked = true;
+            return getPageWords(images, pageIteratorLevel);
         } finally {
             alreadyInvoked = false;
         }
-
-        return words;
     }
 
     /**
-     * Releases all of the native resources used by this instance.
+     * Releases all of the native resources used by this instance. In a
+     * long-lived session, only the recognition results are cleared.
      */
     protected void dispose() {
         if (api != null && handle != null) {
+            if (persistent) {
+                api.TessBaseAPIClear(handle);
+                return;
+            }
             api.TessBaseAPIDelete(handle);
+            handle = null;
+            initSettings = null;
         }
     }
 }
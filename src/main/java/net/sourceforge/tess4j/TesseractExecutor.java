@@ -0,0 +1,243 @@
+/**
+ * Copyright @ 2026 Quan Nguyen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.sourceforge.tess4j;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs OCR jobs asynchronously with a limit on the number of pending jobs,
+ * running or queued. A job submitted while the limit is reached completes
+ * exceptionally with a <code>RejectedExecutionException</code>, which gives
+ * callers backpressure.
+ * <br>
+ * Any <code>ExecutorService</code> can back the jobs, including a virtual
+ * thread executor on Java 21 or later. Tesseract may use its own OpenMP
+ * threads for each job; when running many jobs concurrently, setting the
+ * environment variable <code>OMP_THREAD_LIMIT=1</code> avoids oversubscribing
+ * the cores.
+ */
+public class TesseractExecutor implements AutoCloseable {
+
+    private static TesseractExecutor defaultExecutor;
+
+    private final ExecutorService executor;
+    private final boolean ownExecutor;
+    private final Semaphore permits;
+    private final int maxPending;
+    private final Map<Object, CompletableFuture<Void>> tails = new IdentityHashMap<>();
+
+    /**
+     * Constructor. Creates a fixed pool of daemon threads.
+     *
+     * @param threads number of worker threads
+     * @param maxPending maximum number of jobs running or waiting to run
+     */
+    public TesseractExecutor(int threads, int maxPending) {
+        this(Executors.newFixedThreadPool(threads, new DaemonThreadFactory("tess4j-ocr-")), maxPending, true);
+    }
+
+    /**
+     * Constructor. The caller keeps ownership of the executor service.
+     *
+     * @param executor executor service that runs the jobs
+     * @param maxPending maximum number of jobs running or waiting to run
+     */
+    public TesseractExecutor(ExecutorService executor, int maxPending) {
+        this(executor, maxPending, false);
+    }
+
+    private TesseractExecutor(ExecutorService executor, int maxPending, boolean ownExecutor) {
+        if (maxPending < 1) {
+            throw new IllegalArgumentException("Maximum number of pending jobs must be positive.");
+        }
+        this.executor = executor;
+        this.ownExecutor = ownExecutor;
+        this.maxPending = maxPending;
+        this.permits = new Semaphore(maxPending);
+    }
+
+    /**
+     * Gets the shared executor used by the asynchronous methods of
+     * <code>ITesseract</code>. By default, it has one thread per available
+     * processor.
+     *
+     * @return the shared executor
+     */
+    public static synchronized TesseractExecutor getDefault() {
+        if (defaultExecutor == null) {
+            int threads = Runtime.getRuntime().availableProcessors();
+            defaultExecutor = new TesseractExecutor(threads, threads * 16);
+        }
+        return defaultExecutor;
+    }
+
+    /**
+     * Replaces the shared executor used by the asynchronous methods of
+     * <code>ITesseract</code>. The previous one is not closed.
+     *
+     * @param executor the new shared executor
+     */
+    public static synchronized void setDefault(TesseractExecutor executor) {
+        defaultExecutor = executor;
+    }
+
+    /**
+     * Gets the maximum number of jobs running or waiting to run.
+     *
+     * @return the limit
+     */
+    public int getMaxPending() {
+        return maxPending;
+    }
+
+    /**
+     * Gets the number of jobs running or waiting to run.
+     *
+     * @return the number of pending jobs
+     */
+    public int getPendingCount() {
+        return maxPending - permits.availablePermits();
+    }
+
+    /**
+     * Submits a job.
+     *
+     * @param <T> type of the result
+     * @param task the job
+     * @return a future of the result
+     */
+    public <T> CompletableFuture<T> submit(Callable<T> task) {
+        return submit(null, task);
+    }
+
+    /**
+     * Submits a job that must not run concurrently with other jobs on the
+     * same key, such as jobs on the same <code>Tesseract</code> instance.
+     * Jobs on a key run one at a time in submission order; each is handed to
+     * the executor only when the previous one has finished, so no worker
+     * thread waits on another job. Synchronous calls on the instance are not
+     * serialized with the jobs.
+     *
+     * @param <T> type of the result
+     * @param key object whose jobs run one at a time, compared by identity;
+     * <code>null</code> for none
+     * @param task the job
+     * @return a future of the result
+     */
+    public <T> CompletableFuture<T> submit(Object key, Callable<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        if (!permits.tryAcquire()) {
+            future.completeExceptionally(new RejectedExecutionException("Too many pending OCR jobs: " + maxPending));
+            return future;
+        }
+
+        if (key == null) {
+            dispatch(task, future, null);
+            return future;
+        }
+
+        // kept internal, so that cancelling the returned future does not
+        // start the next job early
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        CompletableFuture<Void> previous;
+        synchronized (tails) {
+            previous = tails.put(key, done);
+        }
+        Runnable onDone = () -> {
+            synchronized (tails) {
+                tails.remove(key, done);
+            }
+            done.complete(null);
+        };
+        if (previous == null) {
+            dispatch(task, future, onDone);
+        } else {
+            previous.whenComplete((r, e) -> dispatch(task, future, onDone));
+        }
+        return future;
+    }
+
+    /**
+     * Hands a job to the executor.
+     *
+     * @param task the job
+     * @param future future of the result
+     * @param onDone run when the job has finished; may be <code>null</code>
+     */
+    private <T> void dispatch(Callable<T> task, CompletableFuture<T> future, Runnable onDone) {
+        try {
+            executor.execute(() -> {
+                try {
+                    future.complete(task.call());
+                } catch (Throwable e) {
+                    future.completeExceptionally(e);
+                } finally {
+                    permits.release();
+                    if (onDone != null) {
+                        onDone.run();
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            permits.release();
+            future.completeExceptionally(e);
+            if (onDone != null) {
+                onDone.run();
+            }
+        }
+    }
+
+    /**
+     * Shuts down the worker threads if they were created by this executor.
+     */
+    @Override
+    public void close() {
+        if (ownExecutor) {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Creates named daemon threads so that idle workers do not keep the JVM
+     * alive.
+     */
+    static class DaemonThreadFactory implements ThreadFactory {
+
+        private static final AtomicInteger poolNumber = new AtomicInteger(1);
+        private final AtomicInteger threadNumber = new AtomicInteger(1);
+        private final String namePrefix;
+
+        DaemonThreadFactory(String prefix) {
+            namePrefix = prefix + poolNumber.getAndIncrement() + "-";
+        }
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread t = new Thread(r, namePrefix + threadNumber.getAndIncrement());
+            t.setDaemon(true);
+            return t;
+        }
+    }
+}
@@ -0,0 +1,1137 @@
+/**
+ * Copyright @ 2026 Quan Nguyen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.sourceforge.tess4j;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.imageio.IIOImage;
+import net.sourceforge.tess4j.ITessAPI.TessOcrEngineMode;
+import net.sourceforge.tess4j.util.LoggHelper;
+import net.sourceforge.tess4j.util.PageSource;
+import net.sourceforge.tess4j.util.PixPreprocessor;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A thread-safe pool of initialized <code>Tesseract</code> engines, keyed by
+ * the settings that require the engine to be initialized: datapath, language,
+ * OCR engine mode, configs and init-only variables.
+ * <br>
+ * A borrowed engine is used by one thread at a time and must be given back
+ * with <code>release</code>. Engines handed out by <code>borrow</code> carry
+ * no page segmentation mode or variables. Since Tesseract cannot unset a
+ * variable, an engine whose settings were changed by its borrower is closed
+ * when it is given back rather than handed to the next borrower.
+ * <br>
+ * The pool is also a thread-safe <code>ITesseract</code>: each call borrows an
+ * engine with the default settings for its duration, and asynchronous calls
+ * run on the pool's own <code>TesseractExecutor</code>, so that the number of
+ * concurrent native engines never exceeds the pool size.
+ * <br>
+ * With a page parallelism greater than one, the pages of a multi-page document
+ * are decoded and recognized concurrently on several engines, and the output
+ * is reassembled in page order.
+ */
+public class TesseractPool implements ITesseract, AutoCloseable {
+
+    /**
+     * Default time an engine may stay idle before it is evicted.
+     */
+    public static final long DEFAULT_IDLE_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+    private volatile Key defaultKey;
+    private final int maxSize;
+    private final int minIdle;
+    private final long idleTimeoutMillis;
+
+    private final Map<Key, Deque<PooledEngine>> idle = new HashMap<>();
+    private final Map<Tesseract, Lease> active = new IdentityHashMap<>();
+    private int total;
+    private volatile boolean closed;
+
+    private volatile int psm = -1;
+    private volatile boolean deskew;
+    private volatile PixPreprocessor preprocessor;
+    private final Properties prop = new Properties();
+    private TesseractExecutor executor;
+    private boolean ownExecutor;
+    private volatile int pageParallelism = 1;
+    private ExecutorService pageWorkers;
+
+    private final ScheduledExecutorService evictor;
+
+    private static final org.slf4j.Logger logger = LoggerFactory.getLogger(new LoggHelper().toString());
+
+    /**
+     * Settings under which an engine is initialized.
+     */
+    public static final class Key {
+
+        private final String datapath;
+        private final String language;
+        private final int ocrEngineMode;
+        private final List<String> configs;
+        private final Map<String, String> initVariables;
+
+        /**
+         * Constructor.
+         *
+         * @param datapath the tessdata path
+         * @param language the language code
+         */
+        public Key(String datapath, String language) {
+            this(datapath, language, TessOcrEngineMode.OEM_DEFAULT, null, null);
+        }
+
+        /**
+         * Constructor.
+         *
+         * @param datapath the tessdata path
+         * @param language the language code
+         * @param ocrEngineMode the OcrEngineMode
+         * @param configs list of config filenames; may be <code>null</code>
+         * @param initVariables init-only variables; may be <code>null</code>
+         */
+        public Key(String datapath, String language, int ocrEngineMode, List<String> configs, Map<String, String> initVariables) {
+            this.datapath = datapath;
+            this.language = language;
+            this.ocrEngineMode = ocrEngineMode;
+            this.configs = configs == null ? Collections.<String>emptyList() : Collections.unmodifiableList(new ArrayList<>(configs));
+            this.initVariables = initVariables == null ? Collections.<String, String>emptyMap() : Collections.unmodifiableMap(new TreeMap<>(initVariables));
+        }
+
+        public String getDatapath() {
+            return datapath;
+        }
+
+        public String getLanguage() {
+            return language;
+        }
+
+        public int getOcrEngineMode() {
+            return ocrEngineMode;
+        }
+
+        public List<String> getConfigs() {
+            return configs;
+        }
+
+        public Map<String, String> getInitVariables() {
+            return initVariables;
+        }
+
+        /**
+         * Applies the settings to an engine.
+         *
+         * @param instance the engine
+         */
+        void applyTo(Tesseract instance) {
+            instance.setDatapath(datapath);
+            instance.setLanguage(language);
+            instance.setOcrEngineMode(ocrEngineMode);
+            instance.setConfigs(configs);
+            for (Map.Entry<String, String> entry : initVariables.entrySet()) {
+                instance.setInitVariable(entry.getKey(), entry.getValue());
+            }
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return ocrEngineMode == other.ocrEngineMode
+                    && Objects.equals(datapath, other.datapath)
+                    && Objects.equals(language, other.language)
+                    && configs.equals(other.configs)
+                    && initVariables.equals(other.initVariables);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(datapath, language, ocrEngineMode, configs, initVariables);
+        }
+
+        @Override
+        public String toString() {
+            return "Datapath: " + datapath + " Language: " + language + " OEM: " + ocrEngineMode + " Configs: " + configs + " Init Variables: " + initVariables;
+        }
+    }
+
+    /**
+     * Settings of an engine that take effect without re-initialization. An
+     * engine keeps them for as long as it lives.
+     */
+    private static final class Settings {
+
+        static final Settings NONE = new Settings(-1, Collections.<String, String>emptyMap(), false, null);
+
+        final int psm;
+        final Map<String, String> variables;
+        final boolean deskew;
+        final PixPreprocessor preprocessor;
+
+        Settings(int psm, Map<String, String> variables, boolean deskew, PixPreprocessor preprocessor) {
+            this.psm = psm;
+            this.variables = variables;
+            this.deskew = deskew;
+            this.preprocessor = preprocessor;
+        }
+
+        void applyTo(Tesseract instance) {
+            if (psm > -1) {
+                instance.setPageSegMode(psm);
+            }
+            for (Map.Entry<String, String> entry : variables.entrySet()) {
+                instance.setVariable(entry.getKey(), entry.getValue());
+            }
+            if (deskew) {
+                instance.setDeskew(deskew);
+            }
+            if (preprocessor != null) {
+                instance.setPreprocessor(preprocessor);
+            }
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Settings)) {
+                return false;
+            }
+            Settings other = (Settings) obj;
+            return psm == other.psm
+                    && deskew == other.deskew
+                    && preprocessor == other.preprocessor
+                    && variables.equals(other.variables);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(psm, variables, deskew, preprocessor);
+        }
+    }
+
+    /**
+     * An idle engine, its settings and the time it was given back.
+     */
+    private static final class PooledEngine {
+
+        final Tesseract instance;
+        final Settings settings;
+        final long releasedAt;
+
+        PooledEngine(Tesseract instance, Settings settings) {
+            this.instance = instance;
+            this.settings = settings;
+            this.releasedAt = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * A borrowed engine's settings when it was handed out.
+     */
+    private static final class Lease {
+
+        final Key key;
+        final Settings settings;
+        final int modCount;
+
+        Lease(Key key, Settings settings, int modCount) {
+            this.key = key;
+            this.settings = settings;
+            this.modCount = modCount;
+        }
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param defaultKey settings of the engines handed out by
+     * <code>borrow()</code>
+     * @param maxSize maximum number of engines, idle or in use
+     * @throws TesseractException
+     */
+    public TesseractPool(Key defaultKey, int maxSize) throws TesseractException {
+        this(defaultKey, maxSize, 0, DEFAULT_IDLE_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param defaultKey settings of the engines handed out by
+     * <code>borrow()</code>
+     * @param maxSize maximum number of engines, idle or in use
+     * @param minIdle number of engines for the default key that are
+     * initialized at construction and kept warm regardless of idle time
+     * @param idleTimeoutMillis time an engine may stay idle before it is
+     * evicted; zero or negative disables eviction
+     * @throws TesseractException if an engine cannot be initialized
+     */
+    public TesseractPool(Key defaultKey, int maxSize, int minIdle, long idleTimeoutMillis) throws TesseractException {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Pool size must be positive.");
+        }
+        this.defaultKey = defaultKey;
+        this.maxSize = maxSize;
+        this.minIdle = Math.min(Math.max(minIdle, 0), maxSize);
+        this.idleTimeoutMillis = idleTimeoutMillis;
+
+        // warm up
+        List<Tesseract> warm = new ArrayList<>();
+        try {
+            for (int i = 0; i < this.minIdle; i++) {
+                warm.add(borrow(defaultKey));
+            }
+        } finally {
+            for (Tesseract instance : warm) {
+                release(instance);
+            }
+        }
+
+        if (idleTimeoutMillis > 0) {
+            evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "tess4j-pool-evictor");
+                t.setDaemon(true);
+                return t;
+            });
+            long period = Math.max(idleTimeoutMillis / 2, 1000);
+            evictor.scheduleWithFixedDelay(this::evictIdle, period, period, TimeUnit.MILLISECONDS);
+        } else {
+            evictor = null;
+        }
+    }
+
+    /**
+     * Gets the settings of the engines handed out by <code>borrow()</code>.
+     *
+     * @return the default key
+     */
+    public Key getDefaultKey() {
+        return defaultKey;
+    }
+
+    /**
+     * Gets the maximum number of engines.
+     *
+     * @return maximum pool size
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Gets the number of engines waiting to be borrowed.
+     *
+     * @return idle count
+     */
+    public synchronized int getIdleCount() {
+        return total - active.size();
+    }
+
+    /**
+     * Gets the number of engines currently borrowed.
+     *
+     * @return active count
+     */
+    public synchronized int getActiveCount() {
+        return active.size();
+    }
+
+    /**
+     * Borrows an engine with the default settings, waiting until one is
+     * available.
+     *
+     * @return an initialized engine
+     * @throws TesseractException
+     */
+    public Tesseract borrow() throws TesseractException {
+        return borrow(defaultKey);
+    }
+
+    /**
+     * Borrows an engine with given settings, waiting until one is available.
+     *
+     * @param key engine settings
+     * @return an initialized engine
+     * @throws TesseractException
+     */
+    public Tesseract borrow(Key key) throws TesseractException {
+        return borrow(key, 0, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Borrows an engine with given settings, waiting up to the given time for
+     * one to become available.
+     *
+     * @param key engine settings
+     * @param timeout maximum time to wait; zero means wait indefinitely
+     * @param unit unit of the timeout
+     * @return an initialized engine
+     * @throws TesseractException if the wait times out or is interrupted, or
+     * the engine cannot be initialized
+     */
+    public Tesseract borrow(Key key, long timeout, TimeUnit unit) throws TesseractException {
+        return borrow(key, Settings.NONE, timeout, unit);
+    }
+
+    /**
+     * Borrows an engine with given init and runtime settings, waiting up to
+     * the given time for one to become available.
+     *
+     * @param key engine settings
+     * @param settings runtime settings
+     * @param timeout maximum time to wait; zero means wait indefinitely
+     * @param unit unit of the timeout
+     * @return an initialized engine
+     * @throws TesseractException
+     */
+    private Tesseract borrow(Key key, Settings settings, long timeout, TimeUnit unit) throws TesseractException {
+        long deadline = timeout > 0 ? System.nanoTime() + unit.toNanos(timeout) : 0;
+        Tesseract victim = null;
+
+        synchronized (this) {
+            while (true) {
+                if (closed) {
+                    throw new IllegalStateException("Pool is closed.");
+                }
+
+                Tesseract instance = pollIdle(key, settings);
+                if (instance != null) {
+                    active.put(instance, new Lease(key, settings, instance.getModCount()));
+                    return instance;
+                }
+
+                if (total < maxSize) {
+                    total++; // reserve a slot; initialize outside of the lock
+                    break;
+                }
+
+                // make room by discarding an idle engine of other settings,
+                // init or runtime
+                victim = pollLeastRecentlyUsed();
+                if (victim != null) {
+                    break;
+                }
+
+                try {
+                    if (deadline == 0) {
+                        wait();
+                    } else {
+                        long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                        if (remaining <= 0) {
+                            throw new TesseractException("Timed out waiting for an engine.");
+                        }
+                        wait(remaining);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new TesseractException(e);
+                }
+            }
+        }
+
+        if (victim != null) {
+            victim.close();
+        }
+
+        Tesseract instance = null;
+        try {
+            instance = create(key);
+            settings.applyTo(instance);
+        } finally {
+            synchronized (this) {
+                if (instance != null) {
+                    active.put(instance, new Lease(key, settings, instance.getModCount()));
+                } else {
+                    total--;
+                    notifyAll();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Gives a borrowed engine back to the pool. An engine whose settings were
+     * changed while it was borrowed is closed, since variables set on it
+     * cannot be unset.
+     *
+     * @param instance a borrowed engine
+     */
+    public void release(Tesseract instance) {
+        Lease lease;
+        synchronized (this) {
+            lease = active.remove(instance);
+            if (lease == null) {
+                throw new IllegalArgumentException("Engine does not belong to this pool.");
+            }
+        }
+
+        boolean reusable = false;
+        if (!closed && instance.getModCount() == lease.modCount) {
+            try {
+                // resume the session in case the borrower ended it
+                instance.open();
+                reusable = true;
+            } catch (Exception e) {
+                logger.warn(e.getMessage(), e);
+            }
+        }
+
+        synchronized (this) {
+            if (reusable && !closed) {
+                idle.computeIfAbsent(lease.key, k -> new ArrayDeque<>()).addFirst(new PooledEngine(instance, lease.settings));
+                instance = null;
+            } else {
+                total--;
+            }
+            notifyAll();
+        }
+
+        if (instance != null) {
+            instance.close();
+        }
+    }
+
+    /**
+     * Closes engines that have stayed idle longer than the idle timeout,
+     * keeping the configured minimum of warm engines for the default key.
+     */
+    public void evictIdle() {
+        List<Tesseract> evicted = new ArrayList<>();
+        long cutoff = System.currentTimeMillis() - idleTimeoutMillis;
+
+        synchronized (this) {
+            for (Map.Entry<Key, Deque<PooledEngine>> entry : idle.entrySet()) {
+                int keep = entry.getKey().equals(defaultKey) ? minIdle : 0;
+                Deque<PooledEngine> queue = entry.getValue();
+                // least recently used engines are at the tail
+                while (queue.size() > keep && queue.peekLast().releasedAt < cutoff) {
+                    evicted.add(queue.pollLast().instance);
+                    total--;
+                }
+            }
+            idle.values().removeIf(Deque::isEmpty);
+            if (!evicted.isEmpty()) {
+                notifyAll();
+            }
+        }
+
+        for (Tesseract instance : evicted) {
+            instance.close();
+        }
+    }
+
+    /**
+     * Closes all idle engines and stops handing out new ones. Engines still
+     * borrowed are closed when they are given back.
+     */
+    @Override
+    public void close() {
+        List<Tesseract> evicted = new ArrayList<>();
+
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            for (Deque<PooledEngine> queue : idle.values()) {
+                for (PooledEngine engine : queue) {
+                    evicted.add(engine.instance);
+                    total--;
+                }
+            }
+            idle.clear();
+            notifyAll();
+        }
+
+        if (evictor != null) {
+            evictor.shutdownNow();
+        }
+
+        synchronized (this) {
+            if (ownExecutor) {
+                executor.close();
+            }
+            if (pageWorkers != null) {
+                pageWorkers.shutdown();
+            }
+        }
+
+        for (Tesseract instance : evicted) {
+            instance.close();
+        }
+    }
+
+    /**
+     * Gets the executor that runs the asynchronous calls. By default, it has
+     * one thread per engine.
+     *
+     * @return the executor
+     */
+    public synchronized TesseractExecutor getExecutor() {
+        if (executor == null) {
+            executor = new TesseractExecutor(maxSize, maxSize * 16);
+            ownExecutor = true;
+        }
+        return executor;
+    }
+
+    /**
+     * Sets the executor that runs the asynchronous calls, such as one backed
+     * by virtual threads. The caller keeps ownership of the executor.
+     *
+     * @param executor the executor
+     */
+    public synchronized void setExecutor(TesseractExecutor executor) {
+        if (ownExecutor) {
+            this.executor.close();
+            ownExecutor = false;
+        }
+        this.executor = executor;
+    }
+
+    /**
+     * Sets tessdata path of the default settings.
+     *
+     * @param datapath the tessdata path to set
+     */
+    @Override
+    public void setDatapath(String datapath) {
+        Key key = defaultKey;
+        defaultKey = new Key(datapath, key.language, key.ocrEngineMode, key.configs, key.initVariables);
+    }
+
+    /**
+     * Sets language of the default settings.
+     *
+     * @param language the language code, which follows ISO 639-3 standard.
+     */
+    @Override
+    public void setLanguage(String language) {
+        Key key = defaultKey;
+        defaultKey = new Key(key.datapath, language, key.ocrEngineMode, key.configs, key.initVariables);
+    }
+
+    /**
+     * Sets OCR engine mode of the default settings.
+     *
+     * @param ocrEngineMode the OcrEngineMode to set
+     */
+    @Override
+    public void setOcrEngineMode(int ocrEngineMode) {
+        Key key = defaultKey;
+        defaultKey = new Key(key.datapath, key.language, ocrEngineMode, key.configs, key.initVariables);
+    }
+
+    /**
+     * Sets configs of the default settings.
+     *
+     * @param configs list of config filenames, e.g., "digits", "bazaar",
+     * "quiet"
+     */
+    @Override
+    public void setConfigs(List<String> configs) {
+        Key key = defaultKey;
+        defaultKey = new Key(key.datapath, key.language, key.ocrEngineMode, configs, key.initVariables);
+    }
+
+    /**
+     * Sets page segmentation mode, applied to each engine borrowed by the
+     * <code>ITesseract</code> methods.
+     *
+     * @param mode the page segmentation mode to set
+     */
+    @Override
+    public void setPageSegMode(int mode) {
+        this.psm = mode;
+    }
+
+    /**
+     * Sets the value of Tesseract's internal parameter, applied to each engine
+     * borrowed by the <code>ITesseract</code> methods.
+     *
+     * @param key variable name, e.g., <code>tessedit_create_hocr</code>,
+     * <code>tessedit_char_whitelist</code>, etc.
+     * @param value value for corresponding variable, e.g., "1", "0",
+     * "0123456789", etc.
+     */
+    @Override
+    public void setVariable(String key, String value) {
+        prop.setProperty(key, value);
+    }
+
+    /**
+     * Sets deskewing of each page in memory before it is recognized, applied
+     * to each engine borrowed by the <code>ITesseract</code> methods.
+     *
+     * @param deskew true to deskew pages
+     * @see Tesseract#setDeskew(boolean)
+     */
+    public void setDeskew(boolean deskew) {
+        this.deskew = deskew;
+    }
+
+    /**
+     * Sets native preprocessing of each page before it is recognized,
+     * applied to each engine borrowed by the <code>ITesseract</code> methods.
+     *
+     * @param preprocessor the preprocessor, shared by the engines;
+     * <code>null</code> for none
+     * @see Tesseract#setPreprocessor(PixPreprocessor)
+     */
+    public void setPreprocessor(PixPreprocessor preprocessor) {
+        this.preprocessor = preprocessor;
+    }
+
+    /**
+     * Gets the maximum number of engines that work on the pages of one
+     * document.
+     *
+     * @return the page parallelism
+     */
+    public int getPageParallelism() {
+        return pageParallelism;
+    }
+
+    /**
+     * Sets the maximum number of engines that work on the pages of one
+     * document. The default, 1, processes pages serially on a single engine.
+     * <br>
+     * The output is the same as the serial one, except with the legacy engine,
+     * whose adaptive classifier learns from previous pages on the same engine.
+     *
+     * @param pageParallelism the page parallelism; values above the pool size
+     * are capped at it
+     */
+    public void setPageParallelism(int pageParallelism) {
+        if (pageParallelism < 1) {
+            throw new IllegalArgumentException("Page parallelism must be positive.");
+        }
+        this.pageParallelism = pageParallelism;
+    }
+
+    @Override
+    public String doOCR(File inputFile, List<Rectangle> rects) throws TesseractException {
+        return doOCR(inputFile, PageSelection.all(), rects);
+    }
+
+    @Override
+    public String doOCR(File inputFile, PageSelection selection, List<Rectangle> rects) throws TesseractException {
+        if (pageParallelism == 1) {
+            return execute(instance -> instance.doOCR(inputFile, selection, rects));
+        }
+
+        int[] pageIndices;
+        try (PageSource pages = PageSource.open(inputFile)) {
+            pageIndices = selection.getPageIndices(pages.getPageCount());
+        } catch (Exception e) {
+            logger.error(e.getMessage(), e);
+            throw new TesseractException(e);
+        }
+
+        return doOCR(() -> PageSource.open(inputFile), pageIndices, inputFile.getPath(), Collections.nCopies(pageIndices.length, rects));
+    }
+
+    @Override
+    public String doOCR(List<IIOImage> imageList, String filename, List<List<Rectangle>> roiss) throws TesseractException {
+        if (pageParallelism == 1) {
+            return execute(instance -> instance.doOCR(imageList, filename, roiss));
+        }
+
+        return doOCR(() -> PageSource.of(imageList), PageSelection.all().getPageIndices(imageList.size()), filename, roiss);
+    }
+
+    @Override
+    public String doOCR(int xsize, int ysize, ByteBuffer buf, int bpp, String filename, List<Rectangle> rects) throws TesseractException {
+        return execute(instance -> instance.doOCR(xsize, ysize, buf, bpp, filename, rects));
+    }
+
+    @Override
+    public String doOCR(ByteBuffer data, String formatHint, List<Rectangle> rects) throws TesseractException {
+        return execute(instance -> instance.doOCR(data, formatHint, rects));
+    }
+
+    @Override
+    public void createDocuments(String[] filenames, String[] outputbases, List<RenderedFormat> formats) throws TesseractException {
+        execute(instance -> {
+            instance.createDocuments(filenames, outputbases, formats);
+            return null;
+        });
+    }
+
+    @Override
+    public OCRResult createDocumentsWithResults(BufferedImage bi, String filename, String outputbase, List<RenderedFormat> formats, int pageIteratorLevel) throws TesseractException {
+        return execute(instance -> instance.createDocumentsWithResults(bi, filename, outputbase, formats, pageIteratorLevel));
+    }
+
+    @Override
+    public List<OCRResult> createDocumentsWithResults(BufferedImage[] bis, String[] filenames, String[] outputbases, List<RenderedFormat> formats, int pageIteratorLevel) throws TesseractException {
+        return execute(instance -> instance.createDocumentsWithResults(bis, filenames, outputbases, formats, pageIteratorLevel));
+    }
+
+    @Override
+    public OCRResult createDocumentsWithResults(String filename, String outputbase, List<RenderedFormat> formats, int pageIteratorLevel) throws TesseractException {
+        return execute(instance -> instance.createDocumentsWithResults(filename, outputbase, formats, pageIteratorLevel));
+    }
+
+    @Override
+    public OCRResult createDocumentsWithResults(String filename, String outputbase, List<RenderedFormat> formats, int pageIteratorLevel, PageSelection pages) throws TesseractException {
+        return execute(instance -> instance.createDocumentsWithResults(filename, outputbase, formats, pageIteratorLevel, pages));
+    }
+
+    @Override
+    public List<OCRResult> createDocumentsWithResults(String[] filenames, String[] outputbases, List<RenderedFormat> formats, int pageIteratorLevel) throws TesseractException {
+        return execute(instance -> instance.createDocumentsWithResults(filenames, outputbases, formats, pageIteratorLevel));
+    }
+
+    @Override
+    public OCRResult createDocumentsWithResults(ByteBuffer data, String formatHint, String outputbase, List<RenderedFormat> formats, int pageIteratorLevel) throws TesseractException {
+        return execute(instance -> instance.createDocumentsWithResults(data, formatHint, outputbase, formats, pageIteratorLevel));
+    }
+
+    @Override
+    public List<Rectangle> getSegmentedRegions(BufferedImage bi, int pageIteratorLevel) throws TesseractException {
+        return execute(instance -> instance.getSegmentedRegions(bi, pageIteratorLevel));
+    }
+
+    @Override
+    public List<Word> getWords(List<BufferedImage> biList, int pageIteratorLevel) {
+        try {
+            return execute(instance -> instance.getWords(biList, pageIteratorLevel));
+        } catch (TesseractException e) {
+            logger.warn(e.getMessage(), e);
+            return new ArrayList<>();
+        }
+    }
+
+    @Override
+    public OSDResult getOSD(File imageFile) {
+        try {
+            return execute(instance -> instance.getOSD(imageFile));
+        } catch (TesseractException e) {
+            logger.warn(e.getMessage(), e);
+            return new OSDResult();
+        }
+    }
+
+    @Override
+    public OSDResult getOSD(BufferedImage bi) {
+        try {
+            return execute(instance -> instance.getOSD(bi));
+        } catch (TesseractException e) {
+            logger.warn(e.getMessage(), e);
+            return new OSDResult();
+        }
+    }
+
+    @Override
+    public CompletableFuture<String> doOCRAsync(File imageFile) {
+        return getExecutor().submit(() -> doOCR(imageFile));
+    }
+
+    @Override
+    public CompletableFuture<String> doOCRAsync(BufferedImage bi) {
+        return getExecutor().submit(() -> doOCR(bi));
+    }
+
+    @Override
+    public CompletableFuture<List<Word>> getWordsAsync(List<BufferedImage> biList, int pageIteratorLevel) {
+        return getExecutor().submit(() -> getWords(biList, pageIteratorLevel));
+    }
+
+    @Override
+    public CompletableFuture<Void> createDocumentsAsync(String[] filenames, String[] outputbases, List<RenderedFormat> formats) {
+        return getExecutor().submit(() -> {
+            createDocuments(filenames, outputbases, formats);
+            return null;
+        });
+    }
+
+    /**
+     * Recognizes the pages of a document concurrently. Each worker borrows an
+     * engine and opens its own page source, unless no page is left, then
+     * takes the next unprocessed page until none is left; the pages are
+     * stitched back in order.
+     *
+     * @param source opens a page source for each worker
+     * @param pageIndices indices of the pages to recognize
+     * @param filename input file name
+     * @param roiss list of list of the bounding rectangles of each recognized
+     * page
+     * @return the recognized text
+     * @throws TesseractException
+     */
+    private String doOCR(Callable<PageSource> source, int[] pageIndices, String filename, List<List<Rectangle>> roiss) throws TesseractException {
+        int pageTotal = pageIndices.length;
+        String[] results = new String[pageTotal];
+        AtomicInteger nextPage = new AtomicInteger();
+        int workers = Math.max(1, Math.min(Math.min(pageParallelism, maxSize), pageTotal));
+
+        Callable<Void> worker = () -> {
+            // the other workers may have taken every page already
+            if (nextPage.get() >= pageTotal) {
+                return null;
+            }
+            Tesseract instance = borrow(defaultKey, getSettings(), 0, TimeUnit.MILLISECONDS);
+            try {
+                if (nextPage.get() >= pageTotal) {
+                    return null;
+                }
+                try (PageSource pages = source.call()) {
+                    instance.init();
+                    instance.setVariables();
+
+                    int i;
+                    while ((i = nextPage.getAndIncrement()) < pageTotal) {
+                        List<Rectangle> rois = roiss == null || i >= roiss.size() ? null : roiss.get(i);
+                        results[i] = instance.doOCR(pages.getPage(pageIndices[i]), filename, rois, pageIndices[i] + 1);
+                    }
+                } finally {
+                    // stop the other workers early on failure
+                    nextPage.set(pageTotal);
+                    instance.dispose();
+                }
+            } finally {
+                release(instance);
+            }
+            return null;
+        };
+
+        List<Future<Void>> futures = new ArrayList<>();
+        Exception failure = null;
+        try {
+            ExecutorService workerPool = getPageWorkers();
+            for (int i = 1; i < workers; i++) {
+                futures.add(workerPool.submit(worker));
+            }
+            worker.call();
+        } catch (Exception e) {
+            failure = e;
+        }
+
+        for (Future<Void> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                if (failure == null) {
+                    failure = (Exception) (e.getCause() instanceof Exception ? e.getCause() : e);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                if (failure == null) {
+                    failure = e;
+                }
+            }
+        }
+
+        if (failure != null) {
+            if (failure instanceof TesseractException) {
+                throw (TesseractException) failure;
+            }
+            logger.error(failure.getMessage(), failure);
+            throw new TesseractException(failure);
+        }
+
+        StringBuilder sb = new StringBuilder();
+        for (String page : results) {
+            sb.append(page);
+        }
+
+        if (String.valueOf(ITessAPI.TRUE).equals(prop.getProperty("tessedit_create_hocr"))) {
+            sb.insert(0, htmlBeginTag).append(htmlEndTag);
+        }
+
+        return sb.toString();
+    }
+
+    /**
+     * Gets the threads that run page workers. They are kept apart from the
+     * asynchronous executor, so that a job waiting for its pages never holds
+     * the thread one of them needs.
+     *
+     * @return the page worker threads
+     */
+    private synchronized ExecutorService getPageWorkers() {
+        if (pageWorkers == null) {
+            pageWorkers = Executors.newCachedThreadPool(new TesseractExecutor.DaemonThreadFactory("tess4j-page-"));
+        }
+        return pageWorkers;
+    }
+
+    /**
+     * Work done on a borrowed engine.
+     *
+     * @param <T> type of the result
+     */
+    interface EngineTask<T> {
+
+        T run(Tesseract instance) throws TesseractException;
+    }
+
+    /**
+     * Runs a task on an engine borrowed with the default settings.
+     *
+     * @param <T> type of the result
+     * @param task the task
+     * @return the result of the task
+     * @throws TesseractException
+     */
+    <T> T execute(EngineTask<T> task) throws TesseractException {
+        Tesseract instance = borrow(defaultKey, getSettings(), 0, TimeUnit.MILLISECONDS);
+        try {
+            return task.run(instance);
+        } finally {
+            release(instance);
+        }
+    }
+
+    /**
+     * Gets the page segmentation mode, variables and page processing set on
+     * the pool, which engines borrowed by the <code>ITesseract</code> methods
+     * carry.
+     *
+     * @return the runtime settings
+     */
+    private Settings getSettings() {
+        Map<String, String> variables = new TreeMap<>();
+        for (String key : prop.stringPropertyNames()) {
+            variables.put(key, prop.getProperty(key));
+        }
+        return new Settings(psm, variables, deskew, preprocessor);
+    }
+
+    /**
+     * Removes the most recently used idle engine with given settings, if any.
+     * Failing that, an engine without runtime settings, such as a warm one,
+     * takes them on, which needs no initialization.
+     *
+     * @param key engine settings
+     * @param settings runtime settings
+     * @return the engine, or <code>null</code>
+     */
+    private Tesseract pollIdle(Key key, Settings settings) {
+        Deque<PooledEngine> queue = idle.get(key);
+        if (queue == null) {
+            return null;
+        }
+
+        PooledEngine blank = null;
+        for (Iterator<PooledEngine> it = queue.iterator(); it.hasNext();) {
+            PooledEngine engine = it.next();
+            if (engine.settings.equals(settings)) {
+                it.remove();
+                return engine.instance;
+            }
+            if (blank == null && engine.settings.equals(Settings.NONE)) {
+                blank = engine;
+            }
+        }
+
+        if (blank != null) {
+            queue.remove(blank);
+            settings.applyTo(blank.instance);
+            return blank.instance;
+        }
+        return null;
+    }
+
+    /**
+     * Creates and initializes an engine with given settings.
+     *
+     * @param key engine settings
+     * @return an initialized engine
+     * @throws TesseractException
+     */
+    protected Tesseract create(Key key) throws TesseractException {
+        Tesseract instance = new Tesseract();
+        key.applyTo(instance);
+        try {
+            return instance.open();
+        } catch (RuntimeException | Error e) {
+            instance.close();
+            throw new TesseractException(e);
+        }
+    }
+
+    /**
+     * Removes the least recently used idle engine, if any. The warm engines
+     * of the default key are taken only when no other engine is idle, so that
+     * borrowers of other settings do not wait forever.
+     *
+     * @return the engine, or <code>null</code>
+     */
+    private Tesseract pollLeastRecentlyUsed() {
+        Deque<PooledEngine> oldestQueue = null;
+        Deque<PooledEngine> warmQueue = null;
+        for (Map.Entry<Key, Deque<PooledEngine>> entry : idle.entrySet()) {
+            Deque<PooledEngine> queue = entry.getValue();
+            if (queue.isEmpty()) {
+                continue;
+            }
+            if (entry.getKey().equals(defaultKey) && queue.size() <= minIdle) {
+                warmQueue = queue;
+            } else if (oldestQueue == null || queue.peekLast().releasedAt < oldestQueue.peekLast().releasedAt) {
+                oldestQueue = queue;
+            }
+        }
+        if (oldestQueue == null) {
+            oldestQueue = warmQueue;
+        }
+
+        if (oldestQueue == null) {
+            return null;
+        }
+
+        Tesseract instance = oldestQueue.pollLast().instance;
+        // slot is handed over to the caller; total is unchanged
+        for (Iterator<Deque<PooledEngine>> it = idle.values().iterator(); it.hasNext();) {
+            if (it.next().isEmpty()) {
+                it.remove();
+            }
+        }
+        return instance;
+    }
+}
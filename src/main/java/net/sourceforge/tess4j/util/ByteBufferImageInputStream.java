@@ -0,0 +1,79 @@
+/**
+ * Copyright @ 2026 Quan Nguyen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.sourceforge.tess4j.util;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import javax.imageio.stream.ImageInputStreamImpl;
+
+/**
+ * Image input stream over the bytes of a buffer, such as a byte array or a
+ * memory-mapped file. Unlike the streams ImageIO creates for an
+ * <code>InputStream</code>, it needs no cache, in memory or in a temporary
+ * file, since the whole content is already addressable.
+ */
+public class ByteBufferImageInputStream extends ImageInputStreamImpl {
+
+    private final ByteBuffer data;
+
+    /**
+     * Constructor. The stream reads the bytes from the position to the limit
+     * of the buffer, which is not modified.
+     *
+     * @param data image data
+     */
+    public ByteBufferImageInputStream(ByteBuffer data) {
+        this.data = data.slice();
+    }
+
+    @Override
+    public int read() throws IOException {
+        checkClosed();
+        bitOffset = 0;
+        if (streamPos >= data.limit()) {
+            return -1;
+        }
+        return data.get((int) streamPos++) & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        checkClosed();
+        if (off < 0 || len < 0 || off + len > b.length) {
+            throw new IndexOutOfBoundsException();
+        }
+        bitOffset = 0;
+        if (len == 0) {
+            return 0;
+        }
+        int remaining = data.limit() - (int) Math.min(streamPos, data.limit());
+        if (remaining == 0) {
+            return -1;
+        }
+        int count = Math.min(len, remaining);
+        ByteBuffer src = data.duplicate();
+        ((Buffer) src).position((int) streamPos);
+        src.get(b, off, count);
+        streamPos += count;
+        return count;
+    }
+
+    @Override
+    public long length() {
+        return data.limit();
+    }
+}
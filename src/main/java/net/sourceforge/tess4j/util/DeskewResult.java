@@ -0,0 +1,69 @@
+/**
+ * Copyright @ 2026 Quan Nguyen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.sourceforge.tess4j.util;
+
+/**
+ * Encapsulates the result of deskewing an image.
+ *
+ * @param <T> image type, <code>BufferedImage</code> or <code>Pix</code>
+ */
+public class DeskewResult<T> {
+
+    private final T image;
+    private final double angle;
+    private final boolean rotated;
+
+    /**
+     * Constructor.
+     *
+     * @param image the deskewed image, or the input image if it was not
+     * rotated
+     * @param angle the detected skew angle in degrees; positive when the text
+     * lines descend to the right
+     * @param rotated whether the image was rotated
+     */
+    public DeskewResult(T image, double angle, boolean rotated) {
+        this.image = image;
+        this.angle = angle;
+        this.rotated = rotated;
+    }
+
+    /**
+     * @return the deskewed image, or the input image if it was not rotated
+     */
+    public T getImage() {
+        return image;
+    }
+
+    /**
+     * @return the detected skew angle in degrees
+     */
+    public double getAngle() {
+        return angle;
+    }
+
+    /**
+     * @return true if the image was rotated, in which case it is a new image
+     */
+    public boolean isRotated() {
+        return rotated;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Skew angle: %.2f%s", angle, rotated ? " (deskewed)" : "");
+    }
+}
@@ -0,0 +1,261 @@
+/**
+ * Copyright @ 2026 Quan Nguyen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.sourceforge.tess4j.util;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.HashSet;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Thread-safe pool of direct byte buffers, so that page-sized native buffers
+ * are reused rather than allocated for every page. Direct memory is only
+ * reclaimed by garbage collection, and repeated large allocations can exhaust
+ * <code>-XX:MaxDirectMemorySize</code>.
+ * <br>
+ * Buffers are pooled in size classes of powers of two, from 64 KB. A buffer
+ * is returned with <code>release</code> once it is no longer used; buffers
+ * not released are reclaimed by garbage collection as usual. Released buffers
+ * are kept up to a total capacity, beyond which they are dropped. The pool
+ * keeps track of the buffers it has handed out, so that a buffer released
+ * twice is not handed to two borrowers.
+ */
+public class DirectBufferPool {
+
+    /**
+     * Smallest size class, as a power of two.
+     */
+    static final int MIN_SHIFT = 16;
+
+    /**
+     * Largest size class, as a power of two.
+     */
+    static final int MAX_SHIFT = 30;
+
+    private static DirectBufferPool defaultPool;
+
+    private final long maxPooledBytes;
+    private final Queue<ByteBuffer>[] classes;
+    private final AtomicLong pooledBytes = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final Set<BufferRef> outstanding = new HashSet<>();
+    private final ReferenceQueue<ByteBuffer> collected = new ReferenceQueue<>();
+
+    /**
+     * Weak reference to a buffer handed out, compared by identity, since
+     * buffers compare by content. Buffers that are never released can still
+     * be reclaimed.
+     */
+    private static final class BufferRef extends WeakReference<ByteBuffer> {
+
+        private final int hash;
+
+        BufferRef(ByteBuffer buf, ReferenceQueue<ByteBuffer> queue) {
+            super(buf, queue);
+            hash = System.identityHashCode(buf);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof BufferRef)) {
+                return false;
+            }
+            ByteBuffer buf = get();
+            return buf != null && buf == ((BufferRef) obj).get();
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param maxPooledBytes maximum total capacity of the buffers kept for
+     * reuse
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public DirectBufferPool(long maxPooledBytes) {
+        if (maxPooledBytes < 0) {
+            throw new IllegalArgumentException("Maximum pooled capacity must not be negative.");
+        }
+        this.maxPooledBytes = maxPooledBytes;
+        classes = new Queue[MAX_SHIFT - MIN_SHIFT + 1];
+        for (int i = 0; i < classes.length; i++) {
+            classes[i] = new ConcurrentLinkedQueue<>();
+        }
+    }
+
+    /**
+     * Gets the shared pool used by <code>ImageIOHelper</code>. It keeps up to
+     * 256 MB of buffers.
+     *
+     * @return the shared pool
+     */
+    public static synchronized DirectBufferPool getDefault() {
+        if (defaultPool == null) {
+            defaultPool = new DirectBufferPool(256L << 20);
+        }
+        return defaultPool;
+    }
+
+    /**
+     * Acquires a direct buffer in native byte order, with its position at zero
+     * and its limit at the requested size. Its capacity may be larger.
+     *
+     * @param size number of bytes needed
+     * @return a direct buffer
+     */
+    public ByteBuffer acquire(int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("Size must not be negative.");
+        }
+        int index = sizeClass(size);
+        if (index < 0) {
+            // too large to pool
+            misses.incrementAndGet();
+            return ByteBuffer.allocateDirect(size).order(ByteOrder.nativeOrder());
+        }
+
+        ByteBuffer buf = classes[index].poll();
+        if (buf != null) {
+            pooledBytes.addAndGet(-buf.capacity());
+            hits.incrementAndGet();
+        } else {
+            buf = ByteBuffer.allocateDirect(1 << (index + MIN_SHIFT)).order(ByteOrder.nativeOrder());
+            misses.incrementAndGet();
+        }
+        ((Buffer) buf).clear();
+        ((Buffer) buf).limit(size);
+        synchronized (outstanding) {
+            expunge();
+            outstanding.add(new BufferRef(buf, collected));
+        }
+        return buf;
+    }
+
+    /**
+     * Returns a buffer to the pool. The buffer must not be used afterwards.
+     * Buffers not acquired from this pool, or already released, are ignored.
+     *
+     * @param buf buffer acquired from this pool; <code>null</code> is ignored
+     */
+    public void release(ByteBuffer buf) {
+        if (buf == null || !buf.isDirect()) {
+            return;
+        }
+        synchronized (outstanding) {
+            expunge();
+            if (!outstanding.remove(new BufferRef(buf, null))) {
+                return;
+            }
+        }
+        int capacity = buf.capacity();
+        int index = sizeClass(capacity);
+        if (pooledBytes.addAndGet(capacity) > maxPooledBytes) {
+            pooledBytes.addAndGet(-capacity);
+            return;
+        }
+        classes[index].offer(buf);
+    }
+
+    /**
+     * Forgets buffers that were reclaimed without being released.
+     */
+    private void expunge() {
+        Reference<? extends ByteBuffer> ref;
+        while ((ref = collected.poll()) != null) {
+            outstanding.remove(ref);
+        }
+    }
+
+    /**
+     * Drops all pooled buffers.
+     */
+    public void clear() {
+        for (Queue<ByteBuffer> queue : classes) {
+            ByteBuffer buf;
+            while ((buf = queue.poll()) != null) {
+                pooledBytes.addAndGet(-buf.capacity());
+            }
+        }
+    }
+
+    /**
+     * Gets the total capacity of the buffers kept for reuse.
+     *
+     * @return number of bytes
+     */
+    public long getPooledBytes() {
+        return pooledBytes.get();
+    }
+
+    /**
+     * Gets the number of acquisitions served by a pooled buffer.
+     *
+     * @return number of hits
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * Gets the number of acquisitions that allocated a new buffer.
+     *
+     * @return number of misses
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * Gets the fraction of acquisitions served by a pooled buffer.
+     *
+     * @return hit rate between 0 and 1; 0 if nothing was acquired
+     */
+    public double getHitRate() {
+        long hitCount = hits.get();
+        long total = hitCount + misses.get();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    /**
+     * Gets the index of the smallest size class that holds a size.
+     *
+     * @param size number of bytes
+     * @return index of the size class; -1 if larger than the largest
+     */
+    static int sizeClass(int size) {
+        if (size > 1 << MAX_SHIFT) {
+            return -1;
+        }
+        int shift = size <= 1 ? 0 : 32 - Integer.numberOfLeadingZeros(size - 1);
+        return Math.max(shift, MIN_SHIFT) - MIN_SHIFT;
+    }
+}
@@ -0,0 +1,173 @@
+/**
+ * Copyright @ 2026 Quan Nguyen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.sourceforge.tess4j.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.Locale;
+
+/**
+ * Detection of image file formats from their content, by the signature at the
+ * start of the data. Mislabelled files are recognized, and no image reader
+ * has to be consulted.
+ * <br>
+ * Formats are reported by their ImageIO format names.
+ */
+public final class ImageFormats {
+
+    public static final String TIFF = "tiff";
+    public static final String PNG = "png";
+    public static final String JPEG = "jpeg";
+    public static final String JPEG2000 = "jpeg2000";
+    public static final String PDF = "pdf";
+    public static final String BMP = "bmp";
+    public static final String PNM = "pnm";
+    public static final String GIF = "gif";
+    public static final String JBIG2 = "jbig2";
+
+    /**
+     * Number of bytes read for detection. A PDF header may follow up to 1024
+     * bytes of leading garbage.
+     */
+    static final int HEADER_LENGTH = 1024 + 5;
+
+    private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+    private static final byte[] JP2_SIGNATURE = {0, 0, 0, 0x0C, 'j', 'P', ' ', ' ', '\r', '\n', (byte) 0x87, '\n'};
+    private static final byte[] J2K_SIGNATURE = {(byte) 0xFF, 0x4F, (byte) 0xFF, 0x51};
+    private static final byte[] JBIG2_SIGNATURE = {(byte) 0x97, 'J', 'B', '2', '\r', '\n', 0x1A, '\n'};
+
+    private ImageFormats() {
+    }
+
+    /**
+     * Detects the format of a file from its content.
+     *
+     * @param inputFile input file
+     * @return format name; <code>null</code> if not recognized or not
+     * readable
+     */
+    public static String detect(File inputFile) {
+        if (!inputFile.isFile()) {
+            return null;
+        }
+
+        byte[] header = new byte[HEADER_LENGTH];
+        int length = 0;
+        try (InputStream in = Files.newInputStream(inputFile.toPath())) {
+            int count;
+            while (length < header.length && (count = in.read(header, length, header.length - length)) != -1) {
+                length += count;
+            }
+        } catch (IOException e) {
+            return null;
+        }
+        return detect(ByteBuffer.wrap(header, 0, length));
+    }
+
+    /**
+     * Detects the format of data from its content.
+     *
+     * @param data content, from the position to the limit of the buffer,
+     * which is not modified
+     * @return format name; <code>null</code> if not recognized
+     */
+    public static String detect(ByteBuffer data) {
+        int p = data.position();
+        int n = data.limit() - p;
+
+        if (n >= 4 && ((data.get(p) == 'I' && data.get(p + 1) == 'I' && data.get(p + 3) == 0 && (data.get(p + 2) == 42 || data.get(p + 2) == 43))
+                || (data.get(p) == 'M' && data.get(p + 1) == 'M' && data.get(p + 2) == 0 && (data.get(p + 3) == 42 || data.get(p + 3) == 43)))) {
+            // classic or BigTIFF, either byte order
+            return TIFF;
+        }
+        if (startsWith(data, PNG_SIGNATURE)) {
+            return PNG;
+        }
+        if (n >= 3 && data.get(p) == (byte) 0xFF && data.get(p + 1) == (byte) 0xD8 && data.get(p + 2) == (byte) 0xFF) {
+            return JPEG;
+        }
+        if (startsWith(data, JP2_SIGNATURE) || startsWith(data, J2K_SIGNATURE)) {
+            return JPEG2000;
+        }
+        if (startsWith(data, JBIG2_SIGNATURE)) {
+            return JBIG2;
+        }
+        if (n >= 6 && data.get(p) == 'G' && data.get(p + 1) == 'I' && data.get(p + 2) == 'F' && data.get(p + 3) == '8'
+                && (data.get(p + 4) == '7' || data.get(p + 4) == '9') && data.get(p + 5) == 'a') {
+            return GIF;
+        }
+        if (n >= 3 && data.get(p) == 'P' && data.get(p + 1) >= '1' && data.get(p + 1) <= '6' && Character.isWhitespace(data.get(p + 2))) {
+            return PNM;
+        }
+        if (n >= 2 && data.get(p) == 'B' && data.get(p + 1) == 'M') {
+            return BMP;
+        }
+        if (PdfPageRenderer.isPdf(data)) {
+            return PDF;
+        }
+        return null;
+    }
+
+    /**
+     * Gets the format implied by a file extension.
+     *
+     * @param inputFile input file
+     * @return format name, or the lower-case extension if not a known one
+     */
+    public static String fromExtension(File inputFile) {
+        String name = inputFile.getName();
+        String ext = name.substring(name.lastIndexOf('.') + 1).toLowerCase(Locale.ROOT);
+        switch (ext) {
+            case "tif":
+            case "tiff":
+                return TIFF;
+            case "jpg":
+            case "jpe":
+            case "jpeg":
+                return JPEG;
+            case "pbm":
+            case "pgm":
+            case "ppm":
+                return PNM;
+            case "jp2":
+            case "j2k":
+            case "jpf":
+            case "jpx":
+            case "jpm":
+                return JPEG2000;
+            case "jb2":
+                return JBIG2;
+            default:
+                return ext;
+        }
+    }
+
+    private static boolean startsWith(ByteBuffer data, byte[] signature) {
+        int p = data.position();
+        if (data.limit() - p < signature.length) {
+            return false;
+        }
+        for (int i = 0; i < signature.length; i++) {
+            if (data.get(p + i) != signature[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
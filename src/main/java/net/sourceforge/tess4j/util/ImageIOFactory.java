@@ -0,0 +1,97 @@
+/**
+ * Copyright @ 2026 Quan Nguyen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.sourceforge.tess4j.util;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriter;
+import javax.imageio.spi.ImageReaderSpi;
+import javax.imageio.spi.ImageWriterSpi;
+
+/**
+ * Creates image readers and writers by format name. The service provider of
+ * each format is looked up in the ImageIO registry once and cached; each call
+ * returns a new reader or writer, since those are not thread-safe. The factory
+ * itself is thread-safe.
+ * <br>
+ * After plug-ins are registered or deregistered at runtime, call
+ * <code>clear</code>.
+ */
+public final class ImageIOFactory {
+
+    private static final ConcurrentMap<String, ImageReaderSpi> READERS = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, ImageWriterSpi> WRITERS = new ConcurrentHashMap<>();
+
+    private ImageIOFactory() {
+    }
+
+    /**
+     * Creates a reader for a format.
+     *
+     * @param formatName format name, such as "tiff" or "png"
+     * @return a new reader, to be disposed of by the caller
+     * @throws RuntimeException if no reader is installed for the format
+     */
+    public static ImageReader createReader(String formatName) {
+        ImageReaderSpi spi = READERS.computeIfAbsent(formatName.toLowerCase(Locale.ROOT), name -> {
+            Iterator<ImageReader> readers = ImageIO.getImageReadersByFormatName(name);
+            return readers.hasNext() ? readers.next().getOriginatingProvider() : null;
+        });
+        if (spi == null) {
+            throw new RuntimeException(ImageIOHelper.JAI_IMAGE_READER_MESSAGE);
+        }
+        try {
+            return spi.createReaderInstance();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Creates a writer for a format.
+     *
+     * @param formatName format name, such as "tiff" or "png"
+     * @return a new writer, to be disposed of by the caller
+     * @throws RuntimeException if no writer is installed for the format
+     */
+    public static ImageWriter createWriter(String formatName) {
+        ImageWriterSpi spi = WRITERS.computeIfAbsent(formatName.toLowerCase(Locale.ROOT), name -> {
+            Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName(name);
+            return writers.hasNext() ? writers.next().getOriginatingProvider() : null;
+        });
+        if (spi == null) {
+            throw new RuntimeException(ImageIOHelper.JAI_IMAGE_WRITER_MESSAGE);
+        }
+        try {
+            return spi.createWriterInstance();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Forgets the cached service providers.
+     */
+    public static void clear() {
+        READERS.clear();
+        WRITERS.clear();
+    }
+}
@@ -15,22 +15,25 @@
  */
 package net.sourceforge.tess4j.util;
 
-import java.awt.Toolkit;
+import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
 import java.awt.image.ColorModel;
+import java.awt.image.Raster;
 import java.awt.image.WritableRaster;
 import java.awt.image.DataBuffer;
 import java.awt.image.DataBufferByte;
 import java.awt.image.RenderedImage;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.Buffer;
 import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.channels.FileChannel;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Hashtable;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -57,7 +60,13 @@ import com.github.jaiimageio.plugins.tiff.TIFFTag;
 import com.recognition.software.jdeskew.ImageDeskew;
 import com.recognition.software.jdeskew.ImageUtil;
 
+import net.sourceforge.lept4j.ILeptonica;
+import net.sourceforge.lept4j.Leptonica1;
+import net.sourceforge.lept4j.Pix;
+import net.sourceforge.lept4j.util.LeptUtils;
+
 import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.io.IOUtils;
 
 public class ImageIOHelper {
 
@@ -67,6 +76,45 @@ public class ImageIOHelper {
     public static final String JAI_IMAGE_WRITER_MESSAGE = "Need to install JAI Image I/O package.\nhttps://github.com/jai-imageio/jai-imageio-core";
     public static final String JAI_IMAGE_READER_MESSAGE = "Unsupported image format. May need to install JAI Image I/O package.\nhttps://github.com/jai-imageio/jai-imageio-core";
 
+    /**
+     * Resolution reported in image meta data for images that do not record
+     * one, unless a default resolution is set.
+     */
+    public static final int DEFAULT_RESOLUTION = 300;
+
+    /**
+     * Skew angle in degrees up to which images are left as they are.
+     */
+    public static final double DEFAULT_MINIMUM_DESKEW_THRESHOLD = 0.05d;
+
+    // threshold of the binary image on which Leptonica finds the skew
+    static final int DESKEW_BINARY_THRESHOLD = 130;
+
+    private static volatile int defaultResolution;
+
+    /**
+     * Gets the resolution assumed for images that do not record one.
+     *
+     * @return resolution in dots per inch; 0 if none is assumed
+     */
+    public static int getDefaultResolution() {
+        return defaultResolution;
+    }
+
+    /**
+     * Sets the resolution assumed for images that do not record one, such as
+     * images created in memory. The default is 0, which leaves Tesseract to
+     * estimate the resolution from the size of the text.
+     *
+     * @param dpi resolution in dots per inch
+     */
+    public static void setDefaultResolution(int dpi) {
+        if (dpi < 0) {
+            throw new IllegalArgumentException("Resolution must not be negative.");
+        }
+        defaultResolution = dpi;
+    }
+
     /**
      * Creates a list of TIFF image files from an image file. It basically
      * converts images of other formats to TIFF format, or a multi-page TIFF
@@ -95,24 +143,32 @@ public class ImageIOHelper {
      * @throws IOException
      */
     public static List<File> createTiffFiles(File imageFile, int index, boolean preserve) throws IOException {
-        List<File> tiffFiles = new ArrayList<>();
+        return createTiffFiles(imageFile, index, preserve, null);
+    }
 
-        String imageFormat = getImageFileFormat(imageFile);
+    /**
+     * Creates a list of TIFF image files from an image file, in a scope of
+     * working files.
+     *
+     * @param imageFile input image file
+     * @param index an index of the page; -1 means all pages, as in a multi-page
+     * TIFF image
+     * @param preserve preserve compression mode
+     * @param scope scope of the TIFF image files; <code>null</code> for files
+     * outside any scope
+     * @return a list of TIFF image files
+     * @throws IOException
+     */
+    public static List<File> createTiffFiles(File imageFile, int index, boolean preserve, TempFileManager.Scope scope) throws IOException {
+        List<File> tiffFiles = new ArrayList<>();
 
-        Iterator<ImageReader> readers = ImageIO.getImageReadersByFormatName(imageFormat);
-        if (!readers.hasNext()) {
-            throw new RuntimeException(JAI_IMAGE_READER_MESSAGE);
-        }
-        ImageReader reader = readers.next();
+        String format = getImageFileFormat(imageFile);
+        ImageReader reader = ImageIOFactory.createReader(format);
 
         // Get tiff writer and set output to file
-        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName(TIFF_FORMAT);
-        if (!writers.hasNext()) {
-            throw new RuntimeException(JAI_IMAGE_WRITER_MESSAGE);
-        }
-        ImageWriter writer = writers.next();
+        ImageWriter writer = ImageIOFactory.createWriter(TIFF_FORMAT);
 
-        try (ImageInputStream iis = ImageIO.createImageInputStream(imageFile)) {
+        try (ImageInputStream iis = createImageInputStream(imageFile, format)) {
             reader.setInput(iis);
             // Read the stream metadata
             // IIOMetadata streamMetadata = reader.getStreamMetadata();
@@ -132,7 +188,7 @@ public class ImageIOHelper {
                 // all if index == -1; otherwise, only index-th
                 if (index == -1 || i == index) {
                     IIOImage oimage = reader.readAll(i, reader.getDefaultReadParam());
-                    File tiffFile = File.createTempFile(OUTPUT_FILE_NAME, TIFF_EXT);
+                    File tiffFile = createTempFile(scope, OUTPUT_FILE_NAME, TIFF_EXT);
                     try (ImageOutputStream ios = ImageIO.createImageOutputStream(tiffFile)) {
                         writer.setOutput(ios);
                         writer.write(streamMetadata, oimage, tiffWriteParam);
@@ -166,6 +222,23 @@ public class ImageIOHelper {
     }
 
     public static List<File> createTiffFiles(List<IIOImage> imageList, int index, int dpiX, int dpiY) throws IOException {
+        return createTiffFiles(imageList, index, dpiX, dpiY, null);
+    }
+
+    /**
+     * Creates a list of TIFF image files from a list of <code>IIOImage</code>
+     * objects, in a scope of working files.
+     *
+     * @param imageList a list of <code>IIOImage</code> objects
+     * @param index an index of the page; -1 means all pages
+     * @param dpiX horizontal resolution; 0 to keep the metadata
+     * @param dpiY vertical resolution; 0 to keep the metadata
+     * @param scope scope of the TIFF image files; <code>null</code> for files
+     * outside any scope
+     * @return a list of TIFF image files
+     * @throws IOException
+     */
+    public static List<File> createTiffFiles(List<IIOImage> imageList, int index, int dpiX, int dpiY, TempFileManager.Scope scope) throws IOException {
         List<File> tiffFiles = new ArrayList<>();
 
         //Set up the writeParam
@@ -173,11 +246,7 @@ public class ImageIOHelper {
         tiffWriteParam.setCompressionMode(ImageWriteParam.MODE_DISABLED);
 
         //Get tiff writer and set output to file
-        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName(TIFF_FORMAT);
-        if (!writers.hasNext()) {
-            throw new RuntimeException(JAI_IMAGE_WRITER_MESSAGE);
-        }
-        ImageWriter writer = writers.next();
+        ImageWriter writer = ImageIOFactory.createWriter(TIFF_FORMAT);
 
         //Get the stream metadata
         IIOMetadata streamMetadata = writer.getDefaultStreamMetadata(tiffWriteParam);
@@ -193,7 +262,7 @@ public class ImageIOHelper {
                 oimage.setMetadata(imageMetadata);
             }
 
-            File tiffFile = File.createTempFile(OUTPUT_FILE_NAME, TIFF_EXT);
+            File tiffFile = createTempFile(scope, OUTPUT_FILE_NAME, TIFF_EXT);
             try (ImageOutputStream ios = ImageIO.createImageOutputStream(tiffFile)) {
                 writer.setOutput(ios);
                 writer.write(streamMetadata, oimage, tiffWriteParam);
@@ -214,7 +283,7 @@ public class ImageIOHelper {
      * @return modified IIOMetadata
      * @throws IIOInvalidTreeException
      */
-    private static IIOMetadata setDPIViaAPI(IIOMetadata imageMetadata, int dpiX, int dpiY)
+    static IIOMetadata setDPIViaAPI(IIOMetadata imageMetadata, int dpiX, int dpiY)
             throws IIOInvalidTreeException {
         // Derive the TIFFDirectory from the metadata.
         TIFFDirectory dir = TIFFDirectory.createFromMetadata(imageMetadata);
@@ -266,11 +335,20 @@ public class ImageIOHelper {
      * Gets pixel data of an <code>RenderedImage</code> object.
      *
      * @param image an <code>RenderedImage</code> object
-     * @return a byte buffer of pixel data
+     * @return a byte buffer of pixel data, which may be returned to
+     * <code>DirectBufferPool.getDefault()</code> when no longer used
      */
     public static ByteBuffer getImageByteBuffer(RenderedImage image) {
+        if (image instanceof BufferedImage) {
+            BufferedImage bi = (BufferedImage) image;
+            // the data buffer of a subimage also holds pixels outside it
+            if (bi.getRaster().getParent() == null) {
+                return convertImageData(bi);
+            }
+        }
+
         ColorModel cm = image.getColorModel();
-        WritableRaster wr = image.getData().createCompatibleWritableRaster(image.getWidth(), image.getHeight());
+        WritableRaster wr = Raster.createWritableRaster(image.getSampleModel().createCompatibleSampleModel(image.getWidth(), image.getHeight()), null);
         image.copyData(wr);
         BufferedImage bi = new BufferedImage(cm, wr, cm.isAlphaPremultiplied(), null);
         return convertImageData(bi);
@@ -278,6 +356,11 @@ public class ImageIOHelper {
 
     /**
      * Converts <code>BufferedImage</code> to <code>ByteBuffer</code>.
+     * <br>
+     * The buffer is acquired from <code>DirectBufferPool.getDefault()</code>;
+     * releasing it there once processed, such as after
+     * <code>doOCR(int, int, ByteBuffer, ...)</code> has returned, lets it be
+     * reused for the next page.
      *
      * @param bi Input image
      * @return pixel data
@@ -292,13 +375,32 @@ public class ImageIOHelper {
         }
         byte[] pixelData = ((DataBufferByte) buff).getData();
         //        return ByteBuffer.wrap(pixelData);
-        ByteBuffer buf = ByteBuffer.allocateDirect(pixelData.length);
-        buf.order(ByteOrder.nativeOrder());
+        ByteBuffer buf = DirectBufferPool.getDefault().acquire(pixelData.length);
         buf.put(pixelData);
         ((Buffer) buf).flip();
         return buf;
     }
 
+    /**
+     * Reads the rest of a stream into a buffer. The remainder of a file stream
+     * is memory-mapped instead of copied; other streams are read into the
+     * heap. The stream is left at its end but not closed.
+     *
+     * @param in input stream
+     * @return the content
+     * @throws IOException
+     */
+    public static ByteBuffer readByteBuffer(InputStream in) throws IOException {
+        if (in instanceof FileInputStream) {
+            FileChannel channel = ((FileInputStream) in).getChannel();
+            long position = channel.position();
+            ByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, position, channel.size() - position);
+            channel.position(channel.size());
+            return data;
+        }
+        return ByteBuffer.wrap(IOUtils.toByteArray(in));
+    }
+
     /**
      * Converts <code>RenderedImage</code> to <code>BufferedImage</code>.
      *
@@ -325,20 +427,15 @@ public class ImageIOHelper {
     }
 
     /**
-     * Gets image file format.
+     * Gets image file format, from the content of the file, or from its
+     * extension if the content is not recognized.
      *
      * @param imageFile input image file
      * @return image file format
      */
     public static String getImageFileFormat(File imageFile) {
-        String imageFileName = imageFile.getName();
-        String imageFormat = imageFileName.substring(imageFileName.lastIndexOf('.') + 1);
-        if (imageFormat.matches("(pbm|pgm|ppm)")) {
-            imageFormat = "pnm";
-        } else if (imageFormat.matches("(jp2|j2k|jpf|jpx|jpm)")) {
-            imageFormat = "jpeg2000";
-        }
-        return imageFormat;
+        String imageFormat = ImageFormats.detect(imageFile);
+        return imageFormat != null ? imageFormat : ImageFormats.fromExtension(imageFile);
     }
 
     /**
@@ -350,54 +447,64 @@ public class ImageIOHelper {
      */
     public static File getImageFile(File inputFile) throws IOException {
         File imageFile = inputFile;
-        if (inputFile.getName().toLowerCase().endsWith(".pdf")) {
+        if (PdfPageRenderer.isPdf(inputFile)) {
             imageFile = PdfUtilities.convertPdf2Tiff(inputFile);
         }
         return imageFile;
     }
 
+    /**
+     * Creates an image input stream for an image file. TIFF files are
+     * memory-mapped, so that pages can be located without reading through
+     * the pages before them.
+     *
+     * @param imageFile input image file
+     * @return an image input stream
+     * @throws IOException
+     */
+    public static ImageInputStream createImageInputStream(File imageFile) throws IOException {
+        return createImageInputStream(imageFile, getImageFileFormat(imageFile));
+    }
+
+    /**
+     * Creates an image input stream for an image file of a known format.
+     *
+     * @param imageFile input image file
+     * @param format image file format, as from <code>getImageFileFormat</code>
+     * @return an image input stream
+     * @throws IOException
+     */
+    public static ImageInputStream createImageInputStream(File imageFile, String format) throws IOException {
+        if (ImageFormats.TIFF.equals(format)) {
+            return new MappedImageInputStream(imageFile);
+        }
+        ImageInputStream iis = ImageIO.createImageInputStream(imageFile);
+        if (iis == null) {
+            throw new IOException("Cannot read " + imageFile);
+        }
+        return iis;
+    }
+
     /**
      * Gets a list of <code>BufferedImage</code> objects for an image file.
      *
      * @param inputFile input image file. It can be any of the supported
      * formats, including TIFF, JPEG, GIF, PNG, BMP, JPEG, and PDF
      * @return a list of <code>BufferedImage</code> objects
+     * @see PageSource for decoding one page at a time
      * @throws IOException
      */
     public static List<BufferedImage> getImageList(File inputFile) throws IOException {
-        // convert to TIFF if PDF
-        File imageFile = getImageFile(inputFile);
-
         List<BufferedImage> biList = new ArrayList<>();
-        String imageFormat = getImageFileFormat(imageFile);
-
-        Iterator<ImageReader> readers = ImageIO.getImageReadersByFormatName(imageFormat);
-        if (!readers.hasNext()) {
-            throw new RuntimeException(JAI_IMAGE_READER_MESSAGE);
-        }
-        ImageReader reader = readers.next();
 
-        try (ImageInputStream iis = ImageIO.createImageInputStream(imageFile)) {
-            reader.setInput(iis);
-
-            int imageTotal = reader.getNumImages(true);
-
-            for (int i = 0; i < imageTotal; i++) {
-                BufferedImage bi = reader.read(i);
-                biList.add(bi);
-            }
-
-            return biList;
-        } finally {
-            if (reader != null) {
-                reader.dispose();
-            }
-
-            // delete temporary TIFF image for PDF
-            if (imageFile != null && imageFile.exists() && imageFile != inputFile && imageFile.getName().startsWith("multipage") && imageFile.getName().endsWith(TIFF_EXT)) {
-                imageFile.delete();
+        try (PageSource pages = PageSource.open(inputFile)) {
+            for (int i = 0; i < pages.getPageCount(); i++) {
+                IIOImage page = pages.getPage(i);
+                biList.add((BufferedImage) page.getRenderedImage());
             }
         }
+
+        return biList;
     }
 
     /**
@@ -406,43 +513,20 @@ public class ImageIOHelper {
      * @param inputFile input image file. It can be any of the supported
      * formats, including TIFF, JPEG, GIF, PNG, BMP, JPEG, and PDF
      * @return a list of <code>IIOImage</code> objects
+     * @see PageSource for decoding one page at a time
      * @throws IOException
      */
     public static List<IIOImage> getIIOImageList(File inputFile) throws IOException {
-        // convert to TIFF if PDF
-        File imageFile = getImageFile(inputFile);
-
         List<IIOImage> iioImageList = new ArrayList<>();
-        String imageFormat = getImageFileFormat(imageFile);
 
-        Iterator<ImageReader> readers = ImageIO.getImageReadersByFormatName(imageFormat);
-        if (!readers.hasNext()) {
-            throw new RuntimeException(JAI_IMAGE_READER_MESSAGE);
-        }
-        ImageReader reader = readers.next();
-
-        try (ImageInputStream iis = ImageIO.createImageInputStream(imageFile)) {
-            reader.setInput(iis);
-
-            int imageTotal = reader.getNumImages(true);
-
-            for (int i = 0; i < imageTotal; i++) {
-//                IIOImage oimage = new IIOImage(reader.read(i), null, reader.getImageMetadata(i));
-                IIOImage oimage = reader.readAll(i, reader.getDefaultReadParam());
-                iioImageList.add(oimage);
-            }
-
-            return iioImageList;
-        } finally {
-            if (reader != null) {
-                reader.dispose();
-            }
-
-            // delete temporary TIFF image for PDF
-            if (imageFile != null && imageFile.exists() && imageFile != inputFile && imageFile.getName().startsWith("multipage") && imageFile.getName().endsWith(TIFF_EXT)) {
-                imageFile.delete();
+        try (PageSource pages = PageSource.open(inputFile)) {
+            for (int i = 0; i < pages.getPageCount(); i++) {
+                IIOImage page = pages.getPage(i);
+                iioImageList.add(page);
             }
         }
+
+        return iioImageList;
     }
 
     /**
@@ -455,6 +539,60 @@ public class ImageIOHelper {
         return new IIOImage(bi, null, null);
     }
 
+    /**
+     * Gets an <code>IIOImage</code> object for a <code>BufferedImage</code>,
+     * with its resolution recorded in the metadata.
+     *
+     * @param bi input image
+     * @param dpiX horizontal resolution
+     * @param dpiY vertical resolution
+     * @return an <code>IIOImage</code> object
+     * @throws IOException
+     */
+    public static IIOImage getIIOImage(BufferedImage bi, int dpiX, int dpiY) throws IOException {
+        ImageWriter writer = ImageIOFactory.createWriter(TIFF_FORMAT);
+
+        try {
+            ImageTypeSpecifier imageType = ImageTypeSpecifier.createFromRenderedImage(bi);
+            IIOMetadata imageMetadata = writer.getDefaultImageMetadata(imageType, writer.getDefaultWriteParam());
+            return new IIOImage(bi, null, setDPIViaAPI(imageMetadata, dpiX, dpiY));
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    /**
+     * Gets the resolution recorded in the metadata of an image.
+     *
+     * @param oimage input image
+     * @return horizontal resolution in dots per inch; 0 if not recorded
+     */
+    public static int getResolution(IIOImage oimage) {
+        return getResolution(oimage, "HorizontalPixelSize");
+    }
+
+    /**
+     * Gets a resolution recorded in the standard metadata of an image.
+     *
+     * @param oimage input image
+     * @param pixelSizeNode "HorizontalPixelSize" or "VerticalPixelSize"
+     * @return resolution in dots per inch; 0 if not recorded
+     */
+    private static int getResolution(IIOImage oimage, String pixelSizeNode) {
+        IIOMetadata imageMetadata = oimage.getMetadata();
+        if (imageMetadata == null || !imageMetadata.isStandardMetadataFormatSupported()) {
+            return 0;
+        }
+
+        IIOMetadataNode dimNode = (IIOMetadataNode) imageMetadata.getAsTree("javax_imageio_1.0");
+        NodeList nodes = dimNode.getElementsByTagName(pixelSizeNode);
+        if (nodes.getLength() == 0) {
+            return 0;
+        }
+        float pixelSize = Float.parseFloat(((IIOMetadataNode) nodes.item(0)).getAttribute("value"));
+        return pixelSize > 0 ? Math.round(25.4f / pixelSize) : 0;
+    }
+
     /**
      * Merges multiple images into one multi-page TIFF image.
      *
@@ -468,50 +606,15 @@ public class ImageIOHelper {
             return;
         }
 
-        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName(TIFF_FORMAT);
-        if (!writers.hasNext()) {
-            throw new RuntimeException(JAI_IMAGE_WRITER_MESSAGE);
-        }
-        ImageWriter writer = writers.next();
-
-        //Set up the writeParam
-        TIFFImageWriteParam tiffWriteParam = new TIFFImageWriteParam(Locale.US);
-//        tiffWriteParam.setCompressionMode(ImageWriteParam.MODE_DISABLED); // commented out to preserve original sizes
-
-        //Get the stream metadata
-        IIOMetadata streamMetadata = writer.getDefaultStreamMetadata(tiffWriteParam);
-
-        try (ImageOutputStream ios = ImageIO.createImageOutputStream(outputTiff)) {
-            writer.setOutput(ios);
-            boolean firstPage = true;
-            int index = 1;
+        // keep the original compression; one page in memory at a time
+        try (TiffWriter writer = new TiffWriter(outputTiff, null)) {
             for (File inputImage : inputImages) {
-                String imageFileFormat = getImageFileFormat(inputImage);
-                Iterator<ImageReader> readers = ImageIO.getImageReadersByFormatName(imageFileFormat);
-                if (!readers.hasNext()) {
-                    throw new RuntimeException(JAI_IMAGE_READER_MESSAGE);
-                }
-                ImageReader reader = readers.next();
-                try (ImageInputStream iis = ImageIO.createImageInputStream(inputImage)) {
-                    reader.setInput(iis);
-                    int imageTotal = reader.getNumImages(true);
-                    for (int i = 0; i < imageTotal; i++) {
-                        IIOImage oimage = reader.readAll(i, reader.getDefaultReadParam());
-                        if (firstPage) {
-                            writer.write(streamMetadata, oimage, tiffWriteParam);
-                            firstPage = false;
-                        } else {
-                            writer.writeInsert(index++, oimage, tiffWriteParam);
-                        }
-                    }
-                } finally {
-                    if (reader != null) {
-                        reader.dispose();
+                try (PageSource pages = PageSource.open(inputImage)) {
+                    for (IIOImage oimage : pages) {
+                        writer.append(oimage);
                     }
                 }
             }
-        } finally {
-            writer.dispose();
         }
     }
 
@@ -535,13 +638,16 @@ public class ImageIOHelper {
      * @throws IOException
      */
     public static void mergeTiff(BufferedImage[] inputImages, File outputTiff, String compressionType) throws IOException {
-        List<IIOImage> imageList = new ArrayList<>();
-
-        for (BufferedImage inputImage : inputImages) {
-            imageList.add(new IIOImage(inputImage, null, null));
+        if (inputImages.length == 0) {
+            // if no image
+            return;
         }
 
-        mergeTiff(imageList, outputTiff, compressionType);
+        try (TiffWriter writer = new TiffWriter(outputTiff, compressionType)) {
+            for (BufferedImage inputImage : inputImages) {
+                writer.append(inputImage, 0, 0);
+            }
+        }
     }
 
     /**
@@ -569,47 +675,10 @@ public class ImageIOHelper {
             return;
         }
 
-        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName(TIFF_FORMAT);
-        if (!writers.hasNext()) {
-            throw new RuntimeException(JAI_IMAGE_WRITER_MESSAGE);
-        }
-        ImageWriter writer = writers.next();
-
-        //Set up the writeParam
-        TIFFImageWriteParam tiffWriteParam = new TIFFImageWriteParam(Locale.US);
-//        tiffWriteParam.setCompressionMode(ImageWriteParam.MODE_DISABLED); // comment out to preserve original sizes
-        if (compressionType != null) {
-            tiffWriteParam.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
-            tiffWriteParam.setCompressionType(compressionType);
-        }
-
-        //Get the stream metadata
-        IIOMetadata streamMetadata = writer.getDefaultStreamMetadata(tiffWriteParam);
-
-        try (ImageOutputStream ios = ImageIO.createImageOutputStream(outputTiff)) {
-            writer.setOutput(ios);
-
-            int dpiX = 300;
-            int dpiY = 300;
-
-            for (IIOImage iioImage : imageList) {
-                // Get the default image metadata.
-                ImageTypeSpecifier imageType = ImageTypeSpecifier.createFromRenderedImage(iioImage.getRenderedImage());
-                ImageWriteParam param = writer.getDefaultWriteParam();
-                IIOMetadata imageMetadata = writer.getDefaultImageMetadata(imageType, param);
-                imageMetadata = setDPIViaAPI(imageMetadata, dpiX, dpiY);
-                iioImage.setMetadata(imageMetadata);
-            }
-
-            IIOImage firstIioImage = imageList.remove(0);
-            writer.write(streamMetadata, firstIioImage, tiffWriteParam);
-
-            int i = 1;
+        try (TiffWriter writer = new TiffWriter(outputTiff, compressionType)) {
             for (IIOImage iioImage : imageList) {
-                writer.writeInsert(i++, iioImage, tiffWriteParam);
+                writer.append(iioImage);
             }
-        } finally {
-            writer.dispose();
         }
     }
 
@@ -622,24 +691,123 @@ public class ImageIOHelper {
      * @throws IOException
      */
     public static File deskewImage(File imageFile, double minimumDeskewThreshold) throws IOException {
+        return deskewImage(imageFile, minimumDeskewThreshold, null);
+    }
+
+    /**
+     * Deskews image, in a scope of working files.
+     *
+     * @param imageFile input image
+     * @param minimumDeskewThreshold minimum deskew threshold (typically, 0.05d)
+     * @param scope scope of the TIFF image file; <code>null</code> for a file
+     * outside any scope
+     * @return temporary multi-page TIFF image file
+     * @throws IOException
+     */
+    public static File deskewImage(File imageFile, double minimumDeskewThreshold, TempFileManager.Scope scope) throws IOException {
         List<BufferedImage> imageList = getImageList(imageFile);
         for (int i = 0; i < imageList.size(); i++) {
-            BufferedImage bi = imageList.get(i);
-            ImageDeskew deskew = new ImageDeskew(bi);
-            double imageSkewAngle = deskew.getSkewAngle();
-
-            if ((imageSkewAngle > minimumDeskewThreshold || imageSkewAngle < -(minimumDeskewThreshold))) {
-                bi = ImageUtil.rotate(bi, -imageSkewAngle, bi.getWidth() / 2, bi.getHeight() / 2);
-                imageList.set(i, bi); // replace original with deskewed image
-            }
+            imageList.set(i, deskew(imageList.get(i), minimumDeskewThreshold).getImage()); // replace original with deskewed image
         }
 
-        File tempImageFile = File.createTempFile(FilenameUtils.getBaseName(imageFile.getName()), ".tif");
+        File tempImageFile = createTempFile(scope, FilenameUtils.getBaseName(imageFile.getName()), TIFF_EXT);
         mergeTiff(imageList.toArray(new BufferedImage[0]), tempImageFile);
 
         return tempImageFile;
     }
 
+    /**
+     * Creates a temporary file in a scope, or outside any scope for the
+     * caller.
+     */
+    private static File createTempFile(TempFileManager.Scope scope, String prefix, String suffix) throws IOException {
+        return scope != null ? scope.createTempFile(prefix, suffix) : TempFileManager.getDefault().createTempFile(prefix, suffix);
+    }
+
+    /**
+     * Deskews an image in memory, if it is skewed by more than the default
+     * threshold of 0.05 degrees.
+     *
+     * @param bi input image, which is not modified
+     * @return the deskewed image and the detected angle
+     */
+    public static DeskewResult<BufferedImage> deskew(BufferedImage bi) {
+        return deskew(bi, DEFAULT_MINIMUM_DESKEW_THRESHOLD);
+    }
+
+    /**
+     * Deskews an image in memory. The image is rotated about its center and
+     * enlarged to hold the rotated page, with white corners.
+     *
+     * @param bi input image, which is not modified
+     * @param minimumDeskewThreshold skew angle in degrees up to which the
+     * image is left as it is (typically, 0.05d)
+     * @return the deskewed image and the detected angle
+     */
+    public static DeskewResult<BufferedImage> deskew(BufferedImage bi, double minimumDeskewThreshold) {
+        double imageSkewAngle = new ImageDeskew(bi).getSkewAngle();
+        if ((imageSkewAngle > minimumDeskewThreshold || imageSkewAngle < -(minimumDeskewThreshold))) {
+            BufferedImage source = bi;
+            if (source.getType() == BufferedImage.TYPE_CUSTOM) {
+                // the rotated image is created with the type of the source
+                source = new BufferedImage(bi.getWidth(), bi.getHeight(), BufferedImage.TYPE_INT_RGB);
+                Graphics2D g2 = source.createGraphics();
+                g2.drawImage(bi, 0, 0, null);
+                g2.dispose();
+            }
+            BufferedImage rotated = ImageUtil.rotate(source, -imageSkewAngle, bi.getWidth() / 2, bi.getHeight() / 2);
+            return new DeskewResult<>(rotated, imageSkewAngle, true);
+        }
+        return new DeskewResult<>(bi, imageSkewAngle, false);
+    }
+
+    /**
+     * Deskews a Leptonica image, if it is skewed by more than the default
+     * threshold of 0.05 degrees.
+     *
+     * @param pix input image, which is not modified
+     * @return the deskewed image and the detected angle
+     */
+    public static DeskewResult<Pix> deskew(Pix pix) {
+        return deskew(pix, DEFAULT_MINIMUM_DESKEW_THRESHOLD);
+    }
+
+    /**
+     * Deskews a Leptonica image natively, with the skew found by Leptonica.
+     * The image is rotated about its center and keeps its size and
+     * resolution, with white corners. A rotated image is new and is disposed
+     * by the caller.
+     *
+     * @param pix input image, which is not modified
+     * @param minimumDeskewThreshold skew angle in degrees up to which the
+     * image is left as it is (typically, 0.05d)
+     * @return the deskewed image and the detected angle; the angle is 0 when
+     * Leptonica is not confident of it
+     */
+    public static DeskewResult<Pix> deskew(Pix pix, double minimumDeskewThreshold) {
+        Pix binary = Leptonica1.pixGetDepth(pix) == 1 ? Leptonica1.pixClone(pix) : Leptonica1.pixConvertTo1(pix, DESKEW_BINARY_THRESHOLD);
+        FloatBuffer angle = FloatBuffer.allocate(1);
+        FloatBuffer conf = FloatBuffer.allocate(1);
+        try {
+            if (binary == null || Leptonica1.pixFindSkew(binary, angle, conf) != 0) {
+                return new DeskewResult<>(pix, 0, false);
+            }
+        } finally {
+            LeptUtils.dispose(binary);
+        }
+
+        // Leptonica gives the clockwise rotation that deskews the image
+        double imageSkewAngle = -angle.get(0);
+        if ((imageSkewAngle > minimumDeskewThreshold || imageSkewAngle < -(minimumDeskewThreshold))) {
+            Pix rotated = Leptonica1.pixRotate(pix, (float) Math.toRadians(angle.get(0)),
+                    ILeptonica.L_ROTATE_AREA_MAP, ILeptonica.L_BRING_IN_WHITE, 0, 0);
+            if (rotated != null) {
+                return new DeskewResult<>(rotated, imageSkewAngle, true);
+            }
+        }
+        return new DeskewResult<>(pix, imageSkewAngle, false);
+    }
+
     /**
      * Reads image meta data.
      *
@@ -649,28 +817,13 @@ public class ImageIOHelper {
     public static Map<String, String> readImageData(IIOImage oimage) {
         Map<String, String> dict = new HashMap<>();
 
-        IIOMetadata imageMetadata = oimage.getMetadata();
-        if (imageMetadata != null) {
-            IIOMetadataNode dimNode = (IIOMetadataNode) imageMetadata.getAsTree("javax_imageio_1.0");
-            NodeList nodes = dimNode.getElementsByTagName("HorizontalPixelSize");
-            int dpiX;
-            if (nodes.getLength() > 0) {
-                float dpcWidth = Float.parseFloat(nodes.item(0).getAttributes().item(0).getNodeValue());
-                dpiX = (int) Math.round(25.4f / dpcWidth);
-            } else {
-                dpiX = Toolkit.getDefaultToolkit().getScreenResolution();
-            }
-            dict.put("dpiX", String.valueOf(dpiX));
-
-            nodes = dimNode.getElementsByTagName("VerticalPixelSize");
-            int dpiY;
-            if (nodes.getLength() > 0) {
-                float dpcHeight = Float.parseFloat(nodes.item(0).getAttributes().item(0).getNodeValue());
-                dpiY = (int) Math.round(25.4f / dpcHeight);
-            } else {
-                dpiY = Toolkit.getDefaultToolkit().getScreenResolution();
-            }
-            dict.put("dpiY", String.valueOf(dpiY));
+        if (oimage.getMetadata() != null) {
+            // no screen resolution fallback; it is unavailable in headless JVMs
+            int fallback = defaultResolution > 0 ? defaultResolution : DEFAULT_RESOLUTION;
+            int dpiX = getResolution(oimage, "HorizontalPixelSize");
+            dict.put("dpiX", String.valueOf(dpiX > 0 ? dpiX : fallback));
+            int dpiY = getResolution(oimage, "VerticalPixelSize");
+            dict.put("dpiY", String.valueOf(dpiY > 0 ? dpiY : fallback));
         }
 
         return dict;
@@ -49,7 +49,7 @@ public class LoadLibs {
 
     private static final String VFS_PROTOCOL = "vfs";
     private static final String JNA_LIBRARY_PATH = "jna.library.path";
-    public static final String TESS4J_TEMP_DIR = new File(System.getProperty("java.io.tmpdir"), "tess4j").getPath();
+    public static final String TESS4J_TEMP_DIR = TempFileManager.getDefaultRoot().getPath();
 
     /**
      * Native library name.
@@ -0,0 +1,200 @@
+/**
+ * Copyright @ 2026 Quan Nguyen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.sourceforge.tess4j.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import javax.imageio.stream.ImageInputStreamImpl;
+
+/**
+ * Image input stream over a memory-mapped file. Seeks cost nothing and reads
+ * copy straight from the page cache, which suits formats that jump between
+ * directories and data, such as multi-page TIFF: a page can be located
+ * without reading the pages before it through a buffered stream.
+ * <br>
+ * Files are mapped in segments, so files beyond 2 GB are supported. The
+ * mapping is released when the stream is closed, so that the file can be
+ * deleted right away on Windows; on a JVM that does not allow that, it is
+ * released when the stream is garbage collected.
+ */
+public class MappedImageInputStream extends ImageInputStreamImpl {
+
+    /**
+     * Size of the mapped segments, as a power of two.
+     */
+    static final int SEGMENT_SHIFT = 30;
+
+    private ByteBuffer[] segments;
+    private final int segmentShift;
+    private final long segmentMask;
+    private final long length;
+
+    private static final Unmapper unmapper = Unmapper.create();
+
+    /**
+     * Constructor. Maps a file.
+     *
+     * @param file input file
+     * @throws IOException
+     */
+    public MappedImageInputStream(File file) throws IOException {
+        this(file, SEGMENT_SHIFT);
+    }
+
+    MappedImageInputStream(File file, int segmentShift) throws IOException {
+        this.segmentShift = segmentShift;
+        this.segmentMask = (1L << segmentShift) - 1;
+
+        // the mapping stays valid after the channel is closed
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+                FileChannel channel = raf.getChannel()) {
+            length = channel.size();
+            int count = (int) ((length + segmentMask) >>> segmentShift);
+            segments = new ByteBuffer[count];
+            for (int i = 0; i < count; i++) {
+                long position = (long) i << segmentShift;
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(segmentMask + 1, length - position));
+            }
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        checkClosed();
+        bitOffset = 0;
+        if (streamPos >= length) {
+            return -1;
+        }
+        int value = segments[(int) (streamPos >>> segmentShift)].get((int) (streamPos & segmentMask)) & 0xFF;
+        streamPos++;
+        return value;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        checkClosed();
+        if (off < 0 || len < 0 || off + len > b.length) {
+            throw new IndexOutOfBoundsException();
+        }
+        bitOffset = 0;
+        if (len == 0) {
+            return 0;
+        }
+        if (streamPos >= length) {
+            return -1;
+        }
+
+        int total = (int) Math.min(len, length - streamPos);
+        int done = 0;
+        while (done < total) {
+            ByteBuffer segment = segments[(int) (streamPos >>> segmentShift)];
+            int position = (int) (streamPos & segmentMask);
+            int count = Math.min(total - done, segment.limit() - position);
+            ((Buffer) segment).position(position);
+            segment.get(b, off + done, count);
+            done += count;
+            streamPos += count;
+        }
+        return total;
+    }
+
+    @Override
+    public long length() {
+        return length;
+    }
+
+    @Override
+    public void close() throws IOException {
+        super.close();
+        ByteBuffer[] mapped = segments;
+        segments = null;
+        if (mapped != null) {
+            for (ByteBuffer segment : mapped) {
+                unmap(segment);
+            }
+        }
+    }
+
+    /**
+     * Releases a mapped buffer, which must not be used afterwards.
+     *
+     * @param buf a mapped buffer
+     * @return false if the JVM does not allow it, in which case the mapping is
+     * released when the buffer is garbage collected
+     */
+    static boolean unmap(ByteBuffer buf) {
+        return unmapper != null && unmapper.unmap(buf);
+    }
+
+    /**
+     * Invokes the cleaner of a direct buffer, through
+     * <code>Unsafe.invokeCleaner</code> on Java 9 or later, or the buffer's
+     * own cleaner on Java 8.
+     */
+    private static final class Unmapper {
+
+        private final Object target;
+        private final Method method;
+        private final Method clean;
+
+        private Unmapper(Object target, Method method, Method clean) {
+            this.target = target;
+            this.method = method;
+            this.clean = clean;
+        }
+
+        static Unmapper create() {
+            try {
+                Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+                Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+                Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+                theUnsafe.setAccessible(true);
+                return new Unmapper(theUnsafe.get(null), invokeCleaner, null);
+            } catch (Exception | LinkageError e) {
+                // Java 8
+            }
+            try {
+                Method cleaner = Class.forName("sun.nio.ch.DirectBuffer").getMethod("cleaner");
+                Method clean = Class.forName("sun.misc.Cleaner").getMethod("clean");
+                return new Unmapper(null, cleaner, clean);
+            } catch (Exception | LinkageError e) {
+                return null;
+            }
+        }
+
+        boolean unmap(ByteBuffer buf) {
+            try {
+                if (clean == null) {
+                    method.invoke(target, buf);
+                } else {
+                    Object cleaner = method.invoke(buf);
+                    if (cleaner != null) {
+                        clean.invoke(cleaner);
+                    }
+                }
+                return true;
+            } catch (Exception | LinkageError e) {
+                return false;
+            }
+        }
+    }
+}
@@ -0,0 +1,342 @@
+/**
+ * Copyright @ 2026 Quan Nguyen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.sourceforge.tess4j.util;
+
+import java.awt.image.BufferedImage;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.AbstractList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+
+/**
+ * Pages of a document, decoded one at a time when asked for. Only the page
+ * being processed needs to be held in memory, whatever the document length.
+ * <br>
+ * A page source is not thread-safe; concurrent decoding needs one source per
+ * thread. Iterating wraps decoding errors in
+ * <code>UncheckedIOException</code>.
+ */
+public abstract class PageSource implements Iterable<IIOImage>, Closeable {
+
+    /**
+     * Opens the pages of an image file.
+     *
+     * @param inputFile input image file. It can be any of the supported
+     * formats, including TIFF, JPEG, GIF, PNG, BMP, JPEG, and PDF
+     * @return the pages
+     * @throws IOException
+     */
+    public static PageSource open(File inputFile) throws IOException {
+        // detected once, as the file is read for it
+        String format = ImageIOHelper.getImageFileFormat(inputFile);
+        if (ImageFormats.PDF.equals(format)) {
+            return new PdfPages(new PdfPageRenderer(inputFile));
+        }
+
+        ImageReader reader = ImageIOFactory.createReader(format);
+        ImageInputStream iis = ImageIOHelper.createImageInputStream(inputFile, format);
+        try {
+            reader.setInput(iis);
+            return new ImageReaderPages(reader, iis);
+        } catch (RuntimeException e) {
+            reader.dispose();
+            iis.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Opens the pages of an image held in memory, without writing it to a
+     * file. Memory-mapped files are read in place.
+     *
+     * @param data image content, from the position to the limit of the
+     * buffer, which is not modified. It can be any of the supported formats,
+     * including TIFF, JPEG, GIF, PNG, BMP, and PDF
+     * @param formatHint format name, such as "tiff" or "pdf", used when the
+     * format is not recognized from the content; <code>null</code> for none
+     * @return the pages
+     * @throws IOException
+     */
+    public static PageSource open(ByteBuffer data, String formatHint) throws IOException {
+        String format = ImageFormats.detect(data);
+        if (format == null) {
+            format = formatHint;
+        }
+        if (ImageFormats.PDF.equalsIgnoreCase(format)) {
+            return new PdfPages(new PdfPageRenderer(data));
+        }
+
+        ImageInputStream iis = new ByteBufferImageInputStream(data);
+        ImageReader reader;
+        if (format != null) {
+            reader = ImageIOFactory.createReader(format);
+        } else {
+            // let the installed readers recognize the content
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(iis);
+            if (!readers.hasNext()) {
+                iis.close();
+                throw new RuntimeException(ImageIOHelper.JAI_IMAGE_READER_MESSAGE);
+            }
+            reader = readers.next();
+        }
+        try {
+            reader.setInput(iis);
+            return new ImageReaderPages(reader, iis);
+        } catch (RuntimeException e) {
+            reader.dispose();
+            iis.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Wraps pages already in memory.
+     *
+     * @param images list of <code>IIOImage</code> objects
+     * @return the pages
+     */
+    public static PageSource of(List<IIOImage> images) {
+        return new PageSource() {
+            @Override
+            public int getPageCount() {
+                return images.size();
+            }
+
+            @Override
+            public IIOImage getPage(int pageIndex) {
+                return images.get(pageIndex);
+            }
+        };
+    }
+
+    /**
+     * Gets the number of pages. For some formats, such as TIFF, this scans
+     * the whole document.
+     *
+     * @return number of pages
+     */
+    public abstract int getPageCount();
+
+    /**
+     * Checks whether a page exists. Unlike <code>getPageCount</code>, it
+     * reads no further into the document than the page.
+     *
+     * @param pageIndex page index, zero-based
+     * @return true if the document has the page
+     * @throws IOException
+     */
+    public boolean hasPage(int pageIndex) throws IOException {
+        return pageIndex < getPageCount();
+    }
+
+    /**
+     * Decodes a page.
+     *
+     * @param pageIndex page index, zero-based
+     * @return the page
+     * @throws IOException
+     */
+    public abstract IIOImage getPage(int pageIndex) throws IOException;
+
+    /**
+     * Iterates over the pages, decoding each one when reached.
+     *
+     * @return an iterator of the pages
+     */
+    @Override
+    public Iterator<IIOImage> iterator() {
+        return new Iterator<IIOImage>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                try {
+                    return hasPage(next);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            @Override
+            public IIOImage next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                try {
+                    return getPage(next++);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+    }
+
+    /**
+     * Gets a read-only view of the page images, decoding a page each time it
+     * is accessed.
+     *
+     * @return list of <code>BufferedImage</code> objects
+     */
+    public List<BufferedImage> asImageList() {
+        return asImageList(null);
+    }
+
+    /**
+     * Gets a read-only view of some page images, decoding a page each time it
+     * is accessed.
+     *
+     * @param pageIndices indices of the pages; <code>null</code> for all
+     * @return list of <code>BufferedImage</code> objects
+     */
+    public List<BufferedImage> asImageList(final int[] pageIndices) {
+        final List<IIOImage> pages = asPageList(pageIndices);
+        return new AbstractList<BufferedImage>() {
+            @Override
+            public BufferedImage get(int index) {
+                return (BufferedImage) pages.get(index).getRenderedImage();
+            }
+
+            @Override
+            public int size() {
+                return pages.size();
+            }
+        };
+    }
+
+    /**
+     * Gets a read-only view of some pages, with their metadata, decoding a
+     * page each time it is accessed.
+     *
+     * @param pageIndices indices of the pages; <code>null</code> for all
+     * @return list of <code>IIOImage</code> objects
+     */
+    public List<IIOImage> asPageList(final int[] pageIndices) {
+        return new AbstractList<IIOImage>() {
+            @Override
+            public IIOImage get(int index) {
+                try {
+                    return getPage(pageIndices != null ? pageIndices[index] : index);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            @Override
+            public int size() {
+                return pageIndices != null ? pageIndices.length : getPageCount();
+            }
+        };
+    }
+
+    /**
+     * Releases the underlying document.
+     *
+     * @throws IOException
+     */
+    @Override
+    public void close() throws IOException {
+    }
+
+    /**
+     * Pages of a PDF document, rendered from a single document. Full-page
+     * scans are decoded at native resolution.
+     */
+    private static class PdfPages extends PageSource {
+
+        private final PdfPageRenderer renderer;
+
+        PdfPages(PdfPageRenderer renderer) {
+            this.renderer = renderer;
+        }
+
+        @Override
+        public int getPageCount() {
+            return renderer.getPageCount();
+        }
+
+        @Override
+        public IIOImage getPage(int pageIndex) throws IOException {
+            return renderer.getPage(pageIndex);
+        }
+
+        @Override
+        public void close() throws IOException {
+            renderer.close();
+        }
+    }
+
+    /**
+     * Pages of an image file, decoded by a single reader. Pages are counted
+     * only when asked, since that walks the directory chain of a TIFF file.
+     */
+    private static class ImageReaderPages extends PageSource {
+
+        private final ImageReader reader;
+        private final ImageInputStream iis;
+        private int imageTotal = -1;
+
+        ImageReaderPages(ImageReader reader, ImageInputStream iis) {
+            this.reader = reader;
+            this.iis = iis;
+        }
+
+        @Override
+        public int getPageCount() {
+            if (imageTotal < 0) {
+                try {
+                    imageTotal = reader.getNumImages(true);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            return imageTotal;
+        }
+
+        @Override
+        public boolean hasPage(int pageIndex) throws IOException {
+            if (imageTotal >= 0) {
+                return pageIndex < imageTotal;
+            }
+            try {
+                // locates the page without counting those after it
+                reader.getWidth(pageIndex);
+                return true;
+            } catch (IndexOutOfBoundsException e) {
+                return false;
+            }
+        }
+
+        @Override
+        public IIOImage getPage(int pageIndex) throws IOException {
+            return reader.readAll(pageIndex, reader.getDefaultReadParam());
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.dispose();
+            iis.close();
+        }
+    }
+}
@@ -19,18 +19,21 @@ import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.FilenameFilter;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.apache.commons.io.FileUtils;
 import org.apache.pdfbox.Loader;
 import org.apache.pdfbox.io.RandomAccessReadBufferedFile;
 import org.apache.pdfbox.multipdf.PDFMergerUtility;
 import org.apache.pdfbox.multipdf.Splitter;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.rendering.ImageType;
-import org.apache.pdfbox.rendering.PDFRenderer;
 import org.apache.pdfbox.tools.imageio.ImageIOUtil;
 import org.slf4j.LoggerFactory;
 
@@ -44,6 +47,78 @@ public class PdfBoxUtilities {
 
     private static final org.slf4j.Logger logger = LoggerFactory.getLogger(new LoggHelper().toString());
 
+    private static volatile int renderThreads = Runtime.getRuntime().availableProcessors();
+    private static volatile int renderDpi = PdfPageRenderer.DEFAULT_DPI;
+    private static volatile ImageType renderImageType = ImageType.RGB;
+
+    /**
+     * Gets the resolution at which pages of a PDF document are rendered.
+     *
+     * @return resolution in dots per inch; <code>PdfPageRenderer.AUTO_DPI</code>
+     * when selected for each page
+     */
+    public static int getRenderDpi() {
+        return renderDpi;
+    }
+
+    /**
+     * Sets the resolution at which pages of a PDF document are rendered for
+     * OCR. The default is 300. <code>convertPdf2Png</code> and
+     * <code>convertPdf2Tiff</code> always render at 300. <code>PdfPageRenderer.AUTO_DPI</code> selects it for each
+     * page from its font sizes or image resolution.
+     *
+     * @param dpi resolution in dots per inch
+     */
+    public static void setRenderDpi(int dpi) {
+        if (dpi < 0) {
+            throw new IllegalArgumentException("Resolution must not be negative.");
+        }
+        renderDpi = dpi;
+    }
+
+    /**
+     * Gets the color model of rendered pages.
+     *
+     * @return image type
+     */
+    public static ImageType getRenderImageType() {
+        return renderImageType;
+    }
+
+    /**
+     * Sets the color model of pages rendered for OCR. The default is
+     * <code>RGB</code>; <code>GRAY</code> takes a third of the memory and
+     * suits OCR equally well.
+     *
+     * @param imageType <code>GRAY</code>, <code>BINARY</code> or
+     * <code>RGB</code>
+     */
+    public static void setRenderImageType(ImageType imageType) {
+        renderImageType = imageType;
+    }
+
+    /**
+     * Gets the number of threads that render the pages of a PDF document.
+     *
+     * @return number of rendering threads
+     */
+    public static int getRenderThreads() {
+        return renderThreads;
+    }
+
+    /**
+     * Sets the number of threads that render the pages of a PDF document. The
+     * default is the number of available processors; 1 renders serially.
+     *
+     * @param threads number of rendering threads
+     */
+    public static void setRenderThreads(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Number of rendering threads must be positive.");
+        }
+        renderThreads = threads;
+    }
+
     /**
      * Converts PDF to TIFF format.
      *
@@ -52,64 +127,109 @@ public class PdfBoxUtilities {
      * @throws IOException
      */
     public static File convertPdf2Tiff(File inputPdfFile) throws IOException {
-        File[] pngFiles = null;
+        TempFileManager tempFiles = TempFileManager.getDefault();
+
+        // the PNG images are deleted with the scope
+        try (TempFileManager.Scope scope = tempFiles.openScope()) {
+            File[] pngFiles = convertPdf2Png(inputPdfFile, scope.createTempDirectory("tessimages"), scope);
+            File tiffFile = tempFiles.createTempFile("multipage", ".tif");
+
+            // put PNG images into a single multi-page TIFF image for return
+            ImageIOHelper.mergeTiff(pngFiles, tiffFile);
+            return tiffFile;
+        }
+    }
 
+    /**
+     * Converts PDF to TIFF format, in a scope of working files. The TIFF
+     * image is counted against the quota and deleted with the scope, also if
+     * the process dies.
+     *
+     * @param inputPdfFile input file
+     * @param scope scope of the TIFF image and the intermediate PNG images
+     * @return a multi-page TIFF image
+     * @throws IOException
+     */
+    public static File convertPdf2Tiff(File inputPdfFile, TempFileManager.Scope scope) throws IOException {
+        File imageDir = scope.createTempDirectory("tessimages");
         try {
-            pngFiles = convertPdf2Png(inputPdfFile);
-            File tiffFile = File.createTempFile("multipage", ".tif");
+            File[] pngFiles = convertPdf2Png(inputPdfFile, imageDir, scope);
+            File tiffFile = scope.createTempFile("multipage", ".tif");
 
             // put PNG images into a single multi-page TIFF image for return
             ImageIOHelper.mergeTiff(pngFiles, tiffFile);
             return tiffFile;
         } finally {
-            if (pngFiles != null && pngFiles.length > 0) {
-                // get the working directory of the PNG files
-                File pngDirectory = new File(pngFiles[0].getParent());
-                // delete temporary PNG images
-                for (File tempFile : pngFiles) {
-                    tempFile.delete();
-                }
-
-                pngDirectory.delete();
-            }
+            FileUtils.deleteQuietly(imageDir);
         }
     }
 
     /**
-     * Converts PDF to PNG format.
+     * Converts PDF to PNG format. Pages are split into contiguous ranges, each
+     * rendered on its own thread with its own document, since PDFBox renderers
+     * are not thread-safe.
      *
      * @param inputPdfFile input file
      * @return an array of PNG images
      * @throws java.io.IOException
      */
     public static File[] convertPdf2Png(File inputPdfFile) throws IOException {
-        Path path = Files.createTempDirectory("tessimages");
-        File imageDir = path.toFile();
+        return convertPdf2Png(inputPdfFile, TempFileManager.getDefault().createTempDirectory("tessimages"), null);
+    }
 
-        PDDocument document = null;
+    /**
+     * Converts PDF to PNG format, in a given directory.
+     *
+     * @param inputPdfFile input file
+     * @param imageDir output directory
+     * @param scope scope of the directory, whose quota is awaited before each
+     * page; <code>null</code> for none
+     * @return an array of PNG images
+     * @throws IOException
+     */
+    private static File[] convertPdf2Png(File inputPdfFile, File imageDir, TempFileManager.Scope scope) throws IOException {
         try {
-            document = Loader.loadPDF(new RandomAccessReadBufferedFile(inputPdfFile));
-            PDFRenderer pdfRenderer = new PDFRenderer(document);
-            for (int page = 0; page < document.getNumberOfPages(); ++page) {
-                BufferedImage bim = pdfRenderer.renderImageWithDPI(page, 300, ImageType.RGB);
+            int pageCount;
+            try (PDDocument document = Loader.loadPDF(new RandomAccessReadBufferedFile(inputPdfFile))) {
+                pageCount = document.getNumberOfPages();
+            }
 
-                // suffix in filename will be used as the file format
-                String filename = String.format("workingimage%04d.png", page + 1);
-                ImageIOUtil.writeImage(bim, new File(imageDir, filename).getAbsolutePath(), 300);
+            int threads = Math.max(1, Math.min(renderThreads, pageCount));
+            if (threads == 1) {
+                convertPdf2Png(inputPdfFile, imageDir, 0, pageCount, scope);
+            } else {
+                ExecutorService executor = Executors.newFixedThreadPool(threads);
+                try {
+                    List<Future<Void>> futures = new ArrayList<>();
+                    for (int i = 0; i < threads; i++) {
+                        int firstPage = (int) ((long) pageCount * i / threads);
+                        int lastPage = (int) ((long) pageCount * (i + 1) / threads);
+                        futures.add(executor.submit(() -> {
+                            convertPdf2Png(inputPdfFile, imageDir, firstPage, lastPage, scope);
+                            return null;
+                        }));
+                    }
+                    for (Future<Void> future : futures) {
+                        future.get();
+                    }
+                } catch (ExecutionException e) {
+                    throw e.getCause() instanceof IOException ? (IOException) e.getCause() : new IOException(e.getCause());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException(e);
+                } finally {
+                    executor.shutdownNow();
+                }
             }
+        } catch (TempFileManager.QuotaExceededException e) {
+            // not a partial document
+            throw e;
         } catch (IOException ioe) {
             logger.error("Error extracting PDF Document => " + ioe);
         } finally {
             if (imageDir.list().length == 0) {
                 imageDir.delete();
             }
-
-            if (document != null) {
-                try {
-                    document.close();
-                } catch (Exception e) {
-                }
-            }
         }
 
         // find working files
@@ -139,6 +259,33 @@ public class PdfBoxUtilities {
         return workingFiles;
     }
 
+    /**
+     * Renders a range of pages to PNG images at 300 DPI in RGB; the render
+     * settings apply to OCR only.
+     *
+     * @param inputPdfFile input file
+     * @param imageDir output directory
+     * @param firstPage first page index, inclusive
+     * @param lastPage last page index, exclusive
+     * @param scope scope of the directory; <code>null</code> for none
+     * @throws IOException
+     */
+    private static void convertPdf2Png(File inputPdfFile, File imageDir, int firstPage, int lastPage, TempFileManager.Scope scope) throws IOException {
+        try (PdfPageRenderer pdfRenderer = new PdfPageRenderer(inputPdfFile, PdfPageRenderer.DEFAULT_DPI, ImageType.RGB)) {
+            for (int page = firstPage; page < lastPage; ++page) {
+                if (scope != null) {
+                    // the pages are written to a directory created empty
+                    scope.awaitQuota();
+                }
+                BufferedImage bim = pdfRenderer.renderPage(page);
+
+                // suffix in filename will be used as the file format
+                String filename = String.format("workingimage%04d.png", page + 1);
+                ImageIOUtil.writeImage(bim, new File(imageDir, filename).getAbsolutePath(), PdfPageRenderer.DEFAULT_DPI);
+            }
+        }
+    }
+
     /**
      * Splits PDF.
      *
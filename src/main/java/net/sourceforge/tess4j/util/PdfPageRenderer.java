@@ -0,0 +1,447 @@
+/**
+ * Copyright @ 2026 Quan Nguyen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.sourceforge.tess4j.util;
+
+import java.awt.geom.Point2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.Raster;
+import java.awt.image.WritableRaster;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import javax.imageio.IIOImage;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.contentstream.PDFGraphicsStreamEngine;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.io.RandomAccessRead;
+import org.apache.pdfbox.io.RandomAccessReadBuffer;
+import org.apache.pdfbox.io.RandomAccessReadBufferedFile;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImage;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+import org.apache.pdfbox.pdmodel.graphics.state.RenderingMode;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.apache.pdfbox.util.Matrix;
+import org.apache.pdfbox.util.Vector;
+
+/**
+ * Renders the pages of a PDF document to images in memory, one page at a time,
+ * without going through intermediate image files.
+ * <br>
+ * A page that consists of a single full-page scan is not rendered; its
+ * embedded image is decoded at native resolution instead, keeping bilevel
+ * images at 1 bit per pixel.
+ * <br>
+ * Pages are rendered at a fixed resolution, or with <code>AUTO_DPI</code>, at
+ * a resolution chosen for each page from its font sizes or, for pages without
+ * text, the resolution of its images.
+ * <br>
+ * An instance is not thread-safe; concurrent rendering needs one instance per
+ * thread.
+ */
+public class PdfPageRenderer implements Closeable {
+
+    /**
+     * Default resolution at which pages are rendered.
+     */
+    public static final int DEFAULT_DPI = 300;
+
+    /**
+     * Resolution that selects a resolution for each page.
+     */
+    public static final int AUTO_DPI = 0;
+
+    /**
+     * Range of resolutions selected in auto mode.
+     */
+    public static final int MIN_AUTO_DPI = 150;
+    public static final int MAX_AUTO_DPI = 400;
+
+    /**
+     * Font size, in points, that renders well at the default resolution.
+     */
+    private static final float REFERENCE_FONT_SIZE = 10;
+
+    private final PDDocument document;
+    private final PDFRenderer renderer;
+    private final int dpi;
+    private final ImageType imageType;
+
+    private int analyzedPage = -1;
+    private PageAnalyzer analyzer;
+
+    /**
+     * Constructor. Opens a PDF document, to be rendered with the options set
+     * in <code>PdfBoxUtilities</code>.
+     *
+     * @param inputPdfFile input file
+     * @throws IOException
+     */
+    public PdfPageRenderer(File inputPdfFile) throws IOException {
+        this(inputPdfFile, PdfBoxUtilities.getRenderDpi(), PdfBoxUtilities.getRenderImageType());
+    }
+
+    /**
+     * Constructor. Opens a PDF document.
+     *
+     * @param inputPdfFile input file
+     * @param dpi resolution at which pages are rendered; <code>AUTO_DPI</code>
+     * to select it for each page
+     * @param imageType color model of the rendered pages:
+     * <code>GRAY</code>, <code>BINARY</code> or <code>RGB</code>
+     * @throws IOException
+     */
+    public PdfPageRenderer(File inputPdfFile, int dpi, ImageType imageType) throws IOException {
+        this(new RandomAccessReadBufferedFile(inputPdfFile), dpi, imageType);
+    }
+
+    /**
+     * Constructor. Opens a PDF document held in memory, to be rendered with
+     * the options set in <code>PdfBoxUtilities</code>.
+     *
+     * @param data document content, from the position to the limit of the
+     * buffer, which is not modified
+     * @throws IOException
+     */
+    public PdfPageRenderer(ByteBuffer data) throws IOException {
+        this(new RandomAccessReadBuffer(data.slice()), PdfBoxUtilities.getRenderDpi(), PdfBoxUtilities.getRenderImageType());
+    }
+
+    private PdfPageRenderer(RandomAccessRead source, int dpi, ImageType imageType) throws IOException {
+        if (dpi < 0) {
+            source.close();
+            throw new IllegalArgumentException("Resolution must not be negative.");
+        }
+        this.dpi = dpi;
+        this.imageType = imageType;
+        document = Loader.loadPDF(source);
+        renderer = new PDFRenderer(document);
+    }
+
+    /**
+     * Checks whether a file is a PDF document, by its content, or by its
+     * extension if the content is not recognized.
+     *
+     * @param inputFile input file
+     * @return true if PDF
+     */
+    public static boolean isPdf(File inputFile) {
+        String format = ImageFormats.detect(inputFile);
+        return format != null ? ImageFormats.PDF.equals(format) : inputFile.getName().toLowerCase().endsWith(".pdf");
+    }
+
+    /**
+     * Checks whether data is a PDF document, by its header. The header may
+     * follow up to 1024 bytes of leading garbage.
+     *
+     * @param data document content, from the position to the limit of the
+     * buffer, which is not modified
+     * @return true if PDF
+     */
+    public static boolean isPdf(ByteBuffer data) {
+        byte[] header = "%PDF-".getBytes(StandardCharsets.US_ASCII);
+        int end = Math.min(data.limit(), data.position() + 1024 + header.length) - header.length;
+        for (int i = data.position(); i <= end; i++) {
+            int j = 0;
+            while (j < header.length && data.get(i + j) == header[j]) {
+                j++;
+            }
+            if (j == header.length) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets the number of pages.
+     *
+     * @return number of pages
+     */
+    public int getPageCount() {
+        return document.getNumberOfPages();
+    }
+
+    /**
+     * Gets the resolution at which a page is rendered.
+     *
+     * @param pageIndex page index, zero-based
+     * @return resolution in dots per inch
+     * @throws IOException
+     */
+    public int getDpi(int pageIndex) throws IOException {
+        if (dpi != AUTO_DPI) {
+            return dpi;
+        }
+
+        PageAnalyzer page = analyze(pageIndex);
+        float fontSize = page.getMedianFontSize();
+        int selected;
+        if (fontSize > 0) {
+            selected = Math.round(DEFAULT_DPI * REFERENCE_FONT_SIZE / fontSize);
+        } else if (page.getImageDpi() > 0) {
+            selected = page.getImageDpi();
+        } else {
+            selected = DEFAULT_DPI;
+        }
+
+        // round to a multiple of 50
+        selected = Math.round(selected / 50f) * 50;
+        return Math.max(MIN_AUTO_DPI, Math.min(MAX_AUTO_DPI, selected));
+    }
+
+    /**
+     * Renders a page.
+     *
+     * @param pageIndex page index, zero-based
+     * @return an image of the page
+     * @throws IOException
+     */
+    public BufferedImage renderPage(int pageIndex) throws IOException {
+        return renderer.renderImageWithDPI(pageIndex, getDpi(pageIndex), imageType);
+    }
+
+    /**
+     * Gets the image of a page, with its resolution recorded in the metadata.
+     * A single full-page scan is decoded at native resolution; any other page
+     * is rendered.
+     *
+     * @param pageIndex page index, zero-based
+     * @return the page image
+     * @throws IOException
+     */
+    public IIOImage getPage(int pageIndex) throws IOException {
+        PageAnalyzer page = analyze(pageIndex);
+        PDImage scan = page.getScan();
+        if (scan != null) {
+            BufferedImage bi = scan.getBitsPerComponent() == 1 && scan.getColorSpace().getNumberOfComponents() == 1
+                    ? toBinary(scan.getImage()) : scan.getImage();
+            int dpiX = Math.round(bi.getWidth() * 72f / page.getWidth());
+            int dpiY = Math.round(bi.getHeight() * 72f / page.getHeight());
+            return ImageIOHelper.getIIOImage(bi, dpiX, dpiY);
+        }
+
+        int pageDpi = getDpi(pageIndex);
+        return ImageIOHelper.getIIOImage(renderer.renderImageWithDPI(pageIndex, pageDpi, imageType), pageDpi, pageDpi);
+    }
+
+    /**
+     * Analyzes the content of a page. The last result is kept, since a page
+     * is usually analyzed for its resolution and its image in turn.
+     *
+     * @param pageIndex page index, zero-based
+     * @return the analysis
+     * @throws IOException
+     */
+    private PageAnalyzer analyze(int pageIndex) throws IOException {
+        if (pageIndex != analyzedPage) {
+            PDPage page = document.getPage(pageIndex);
+            analyzer = new PageAnalyzer(page);
+            analyzer.processPage(page);
+            analyzedPage = pageIndex;
+        }
+        return analyzer;
+    }
+
+    /**
+     * Converts a black and white image to 1 bit per pixel.
+     *
+     * @param image decoded bilevel image
+     * @return a binary image
+     */
+    private static BufferedImage toBinary(BufferedImage image) {
+        if (image.getType() == BufferedImage.TYPE_BYTE_BINARY) {
+            return image;
+        }
+        int width = image.getWidth();
+        int height = image.getHeight();
+        BufferedImage binary = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_BINARY);
+        Raster src = image.getRaster();
+        WritableRaster dst = binary.getRaster();
+        int[] row = new int[width];
+        for (int y = 0; y < height; y++) {
+            src.getSamples(0, y, width, 1, 0, row);
+            for (int x = 0; x < width; x++) {
+                row[x] = row[x] > 127 ? 1 : 0;
+            }
+            dst.setSamples(0, y, width, 1, 0, row);
+        }
+        return binary;
+    }
+
+    /**
+     * Collects the sizes of visible text and the resolution of images on a
+     * page, and finds the image of a page that consists of a single image
+     * covering the whole page, with no visible text or vector graphics.
+     */
+    private static class PageAnalyzer extends PDFGraphicsStreamEngine {
+
+        private PDImage scan;
+        private boolean composite;
+        private float width;
+        private float height;
+        private float[] fontSizes = new float[64];
+        private int glyphCount;
+        private int imageDpi;
+
+        PageAnalyzer(PDPage page) {
+            super(page);
+            composite = page.getRotation() != 0;
+        }
+
+        float getMedianFontSize() {
+            if (glyphCount == 0) {
+                return 0;
+            }
+            float[] sizes = Arrays.copyOf(fontSizes, glyphCount);
+            Arrays.sort(sizes);
+            return sizes[glyphCount / 2];
+        }
+
+        int getImageDpi() {
+            return imageDpi;
+        }
+
+        PDImage getScan() {
+            return composite ? null : scan;
+        }
+
+        float getWidth() {
+            return width;
+        }
+
+        float getHeight() {
+            return height;
+        }
+
+        @Override
+        public void drawImage(PDImage pdImage) throws IOException {
+            Matrix ctm = getGraphicsState().getCurrentTransformationMatrix();
+            float scaling = ctm.getScalingFactorX();
+            if (scaling > 0) {
+                imageDpi = Math.max(imageDpi, Math.round(pdImage.getWidth() * 72f / scaling));
+            }
+
+            if (composite || scan != null || pdImage.isStencil()
+                    || pdImage instanceof PDImageXObject && ((PDImageXObject) pdImage).getSoftMask() != null) {
+                composite = true;
+                return;
+            }
+
+            PDRectangle box = getPage().getCropBox();
+            float tolerance = Math.max(2, 0.01f * Math.max(box.getWidth(), box.getHeight()));
+            if (ctm.getShearX() != 0 || ctm.getShearY() != 0 || ctm.getScaleX() <= 0 || ctm.getScaleY() <= 0
+                    || Math.abs(ctm.getTranslateX() - box.getLowerLeftX()) > tolerance
+                    || Math.abs(ctm.getTranslateY() - box.getLowerLeftY()) > tolerance
+                    || Math.abs(ctm.getScaleX() - box.getWidth()) > tolerance
+                    || Math.abs(ctm.getScaleY() - box.getHeight()) > tolerance) {
+                composite = true;
+                return;
+            }
+
+            scan = pdImage;
+            width = ctm.getScaleX();
+            height = ctm.getScaleY();
+        }
+
+        @Override
+        protected void showGlyph(Matrix textRenderingMatrix, PDFont font, int code, Vector displacement) throws IOException {
+            // invisible text, such as an OCR layer, does not show on the page
+            if (getGraphicsState().getTextState().getRenderingMode() == RenderingMode.NEITHER) {
+                return;
+            }
+            composite = true;
+
+            float fontSize = textRenderingMatrix.getScalingFactorY();
+            if (fontSize > 0) {
+                if (glyphCount == fontSizes.length) {
+                    fontSizes = Arrays.copyOf(fontSizes, glyphCount * 2);
+                }
+                fontSizes[glyphCount++] = fontSize;
+            }
+        }
+
+        @Override
+        public void strokePath() throws IOException {
+            composite = true;
+        }
+
+        @Override
+        public void fillPath(int windingRule) throws IOException {
+            composite = true;
+        }
+
+        @Override
+        public void fillAndStrokePath(int windingRule) throws IOException {
+            composite = true;
+        }
+
+        @Override
+        public void shadingFill(COSName shadingName) throws IOException {
+            composite = true;
+        }
+
+        @Override
+        public void appendRectangle(Point2D p0, Point2D p1, Point2D p2, Point2D p3) throws IOException {
+        }
+
+        @Override
+        public void clip(int windingRule) throws IOException {
+        }
+
+        @Override
+        public void moveTo(float x, float y) throws IOException {
+        }
+
+        @Override
+        public void lineTo(float x, float y) throws IOException {
+        }
+
+        @Override
+        public void curveTo(float x1, float y1, float x2, float y2, float x3, float y3) throws IOException {
+        }
+
+        @Override
+        public Point2D getCurrentPoint() throws IOException {
+            return new Point2D.Float();
+        }
+
+        @Override
+        public void closePath() throws IOException {
+        }
+
+        @Override
+        public void endPath() throws IOException {
+        }
+    }
+
+    /**
+     * Closes the document.
+     *
+     * @throws IOException
+     */
+    @Override
+    public void close() throws IOException {
+        document.close();
+    }
+}
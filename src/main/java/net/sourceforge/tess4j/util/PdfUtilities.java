@@ -17,12 +17,42 @@ package net.sourceforge.tess4j.util;
 
 import java.io.File;
 import java.io.IOException;
+import org.apache.pdfbox.rendering.ImageType;
 
 /**
  * PDF utilities based on PDFBox.
  */
 public class PdfUtilities {
 
+    /**
+     * Sets the number of threads that render the pages of a PDF document.
+     *
+     * @param threads number of rendering threads
+     */
+    public static void setRenderThreads(int threads) {
+        PdfBoxUtilities.setRenderThreads(threads);
+    }
+
+    /**
+     * Sets the resolution at which pages of a PDF document are rendered.
+     *
+     * @param dpi resolution in dots per inch; <code>PdfPageRenderer.AUTO_DPI</code>
+     * to select it for each page
+     */
+    public static void setRenderDpi(int dpi) {
+        PdfBoxUtilities.setRenderDpi(dpi);
+    }
+
+    /**
+     * Sets the color model of rendered pages.
+     *
+     * @param imageType <code>GRAY</code>, <code>BINARY</code> or
+     * <code>RGB</code>
+     */
+    public static void setRenderImageType(ImageType imageType) {
+        PdfBoxUtilities.setRenderImageType(imageType);
+    }
+
     /**
      * Converts PDF to TIFF format.
      *
@@ -34,6 +64,18 @@ public class PdfUtilities {
         return PdfBoxUtilities.convertPdf2Tiff(inputPdfFile);
     }
 
+    /**
+     * Converts PDF to TIFF format, in a scope of working files.
+     *
+     * @param inputPdfFile input file
+     * @param scope scope of the TIFF image
+     * @return a multi-page TIFF image
+     * @throws IOException
+     */
+    public static File convertPdf2Tiff(File inputPdfFile, TempFileManager.Scope scope) throws IOException {
+        return PdfBoxUtilities.convertPdf2Tiff(inputPdfFile, scope);
+    }
+
     /**
      * Converts PDF to PNG format.
      *
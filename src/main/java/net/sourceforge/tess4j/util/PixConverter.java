@@ -0,0 +1,220 @@
+/**
+ * Copyright @ 2026 Quan Nguyen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.sourceforge.tess4j.util;
+
+import com.sun.jna.Pointer;
+import java.awt.image.BufferedImage;
+import java.awt.image.ComponentSampleModel;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.awt.image.IndexColorModel;
+import java.awt.image.MultiPixelPackedSampleModel;
+import java.awt.image.Raster;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.io.IOException;
+import net.sourceforge.lept4j.Leptonica1;
+import net.sourceforge.lept4j.Pix;
+import net.sourceforge.lept4j.util.LeptUtils;
+
+/**
+ * Converts images to Leptonica <code>Pix</code> by copying their scanlines
+ * straight into the pixel data, without encoding them to an intermediate
+ * image file.
+ * <br>
+ * Leptonica packs pixels into 32-bit words in native byte order, with the
+ * leftmost pixel in the most significant bits; in 1 bit per pixel images, a
+ * one pixel is black. RGB pixels are words of red, green, blue and alpha
+ * bytes, from the most significant. Images of other types are converted by
+ * <code>LeptUtils</code>.
+ */
+public class PixConverter {
+
+    /**
+     * Converts an image to <code>Pix</code>. The result must be disposed of
+     * with <code>LeptUtils.dispose</code>.
+     *
+     * @param bi input image
+     * @return Pix
+     * @throws IOException
+     */
+    public static Pix convertImageToPix(BufferedImage bi) throws IOException {
+        if (!isSupported(bi)) {
+            return LeptUtils.convertImageToPix(bi);
+        }
+
+        int width = bi.getWidth();
+        int height = bi.getHeight();
+        Pix pix = Leptonica1.pixCreate(width, height, getDepth(bi));
+        if (pix == null) {
+            throw new IOException("Cannot create Pix of " + width + "x" + height);
+        }
+        if (bi.getType() == BufferedImage.TYPE_INT_ARGB) {
+            Leptonica1.pixSetSpp(pix, 4);
+        }
+
+        int wpl = Leptonica1.pixGetWpl(pix);
+        Pointer data = Leptonica1.pixGetData(pix).getPointer();
+        int[] words = new int[wpl];
+        for (int y = 0; y < height; y++) {
+            packRow(bi, y, words);
+            data.write((long) y * wpl * 4, words, 0, wpl);
+        }
+        return pix;
+    }
+
+    /**
+     * Checks whether the scanlines of an image can be copied directly.
+     *
+     * @param bi input image
+     * @return true for images of type <code>TYPE_BYTE_GRAY</code>,
+     * <code>TYPE_BYTE_BINARY</code> of 1 bit per pixel,
+     * <code>TYPE_3BYTE_BGR</code>, <code>TYPE_INT_RGB</code> or
+     * <code>TYPE_INT_ARGB</code>
+     */
+    public static boolean isSupported(BufferedImage bi) {
+        Raster raster = bi.getRaster();
+        if (raster.getDataBuffer().getNumBanks() != 1) {
+            return false;
+        }
+
+        switch (bi.getType()) {
+            case BufferedImage.TYPE_BYTE_BINARY:
+                if (bi.getColorModel().getPixelSize() != 1) {
+                    return false;
+                }
+                MultiPixelPackedSampleModel sm = (MultiPixelPackedSampleModel) raster.getSampleModel();
+                // rows must start on a byte boundary
+                return sm.getBitOffset(-raster.getSampleModelTranslateX()) == 0;
+            case BufferedImage.TYPE_BYTE_GRAY:
+            case BufferedImage.TYPE_3BYTE_BGR:
+            case BufferedImage.TYPE_INT_RGB:
+            case BufferedImage.TYPE_INT_ARGB:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Gets the Leptonica depth of a supported image.
+     *
+     * @param bi input image
+     * @return 1, 8 or 32 bits per pixel
+     */
+    static int getDepth(BufferedImage bi) {
+        switch (bi.getType()) {
+            case BufferedImage.TYPE_BYTE_BINARY:
+                return 1;
+            case BufferedImage.TYPE_BYTE_GRAY:
+                return 8;
+            default:
+                return 32;
+        }
+    }
+
+    /**
+     * Packs a scanline of a supported image into Leptonica words.
+     *
+     * @param bi input image
+     * @param y row
+     * @param words words of the row, at least as many as the Leptonica words
+     * per line
+     */
+    static void packRow(BufferedImage bi, int y, int[] words) {
+        Raster raster = bi.getRaster();
+        DataBuffer db = raster.getDataBuffer();
+        int width = bi.getWidth();
+        int tx = raster.getSampleModelTranslateX();
+        int ty = raster.getSampleModelTranslateY();
+
+        switch (bi.getType()) {
+            case BufferedImage.TYPE_BYTE_BINARY: {
+                MultiPixelPackedSampleModel sm = (MultiPixelPackedSampleModel) raster.getSampleModel();
+                byte[] data = ((DataBufferByte) db).getData();
+                int start = db.getOffset() + sm.getOffset(-tx, y - ty);
+                int bytes = (width + 7) / 8;
+                int wordCount = (width + 31) / 32;
+                boolean invert = isZeroBlack((IndexColorModel) bi.getColorModel());
+                for (int i = 0; i < wordCount; i++) {
+                    int word = 0;
+                    for (int j = 0; j < 4; j++) {
+                        int b = i * 4 + j;
+                        word = (word << 8) | (b < bytes ? data[start + b] & 0xFF : 0);
+                    }
+                    words[i] = invert ? ~word : word;
+                }
+                // clear padding bits
+                int rem = width % 32;
+                if (rem != 0) {
+                    words[wordCount - 1] &= -1 << (32 - rem);
+                }
+                break;
+            }
+            case BufferedImage.TYPE_BYTE_GRAY: {
+                ComponentSampleModel sm = (ComponentSampleModel) raster.getSampleModel();
+                byte[] data = ((DataBufferByte) db).getData();
+                int stride = sm.getPixelStride();
+                int start = db.getOffset() + (y - ty) * sm.getScanlineStride() - tx * stride + sm.getBandOffsets()[0];
+                int wordCount = (width + 3) / 4;
+                for (int i = 0; i < wordCount; i++) {
+                    int word = 0;
+                    for (int j = 0; j < 4; j++) {
+                        int x = i * 4 + j;
+                        word = (word << 8) | (x < width ? data[start + x * stride] & 0xFF : 0);
+                    }
+                    words[i] = word;
+                }
+                break;
+            }
+            case BufferedImage.TYPE_3BYTE_BGR: {
+                ComponentSampleModel sm = (ComponentSampleModel) raster.getSampleModel();
+                byte[] data = ((DataBufferByte) db).getData();
+                int stride = sm.getPixelStride();
+                int[] bandOffsets = sm.getBandOffsets();
+                int start = db.getOffset() + (y - ty) * sm.getScanlineStride() - tx * stride;
+                int r = start + bandOffsets[0];
+                int g = start + bandOffsets[1];
+                int b = start + bandOffsets[2];
+                for (int x = 0, p = 0; x < width; x++, p += stride) {
+                    words[x] = (data[r + p] & 0xFF) << 24 | (data[g + p] & 0xFF) << 16 | (data[b + p] & 0xFF) << 8;
+                }
+                break;
+            }
+            default: {
+                SinglePixelPackedSampleModel sm = (SinglePixelPackedSampleModel) raster.getSampleModel();
+                int[] data = ((DataBufferInt) db).getData();
+                int start = db.getOffset() + (y - ty) * sm.getScanlineStride() - tx;
+                boolean alpha = bi.getType() == BufferedImage.TYPE_INT_ARGB;
+                for (int x = 0; x < width; x++) {
+                    int pixel = data[start + x];
+                    words[x] = alpha ? pixel << 8 | pixel >>> 24 : pixel << 8;
+                }
+                break;
+            }
+        }
+    }
+
+    /**
+     * Checks whether index 0 of a binary color model is the darker color, as
+     * in the default palette of <code>TYPE_BYTE_BINARY</code>.
+     */
+    private static boolean isZeroBlack(IndexColorModel cm) {
+        int dark0 = cm.getRed(0) + cm.getGreen(0) + cm.getBlue(0);
+        int dark1 = cm.getRed(1) + cm.getGreen(1) + cm.getBlue(1);
+        return dark0 <= dark1;
+    }
+}
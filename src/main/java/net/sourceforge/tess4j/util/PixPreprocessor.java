@@ -0,0 +1,216 @@
+/**
+ * Copyright @ 2026 Quan Nguyen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.sourceforge.tess4j.util;
+
+import com.sun.jna.ptr.PointerByReference;
+import net.sourceforge.lept4j.Leptonica1;
+import net.sourceforge.lept4j.Pix;
+import net.sourceforge.lept4j.util.LeptUtils;
+
+/**
+ * Preprocesses page images natively with Leptonica: deskew, then
+ * binarization, then scaling, each optional. The page stays a
+ * <code>Pix</code> in native memory throughout, so together with native
+ * decoding the image data never enters the Java heap before recognition.
+ * <br>
+ * The settings are read on each call, so a preprocessor may be shared by
+ * engines once it is set up.
+ */
+public class PixPreprocessor {
+
+    /**
+     * Binarization methods.
+     */
+    public enum Binarization {
+        /**
+         * Pages keep their depth; Tesseract thresholds them itself.
+         */
+        NONE,
+        /**
+         * Otsu thresholds on large tiles, close to a global threshold.
+         */
+        OTSU,
+        /**
+         * Sauvola local thresholds, for uneven lighting and backgrounds.
+         */
+        SAUVOLA
+    }
+
+    static final int OTSU_TILE_SIZE = 2000;
+    static final float OTSU_SCORE_FRACTION = 0.1f;
+    static final int SAUVOLA_HALF_WINDOW = 12;
+    static final float SAUVOLA_FACTOR = 0.34f;
+    static final int SAUVOLA_TILE_SIZE = 1000;
+
+    private volatile boolean deskew;
+    private volatile double minimumDeskewThreshold = ImageIOHelper.DEFAULT_MINIMUM_DESKEW_THRESHOLD;
+    private volatile Binarization binarization = Binarization.NONE;
+    private volatile float scale = 1;
+    private volatile int targetResolution;
+
+    /**
+     * Sets deskewing, with the skew found by Leptonica.
+     *
+     * @param deskew true to deskew pages
+     */
+    public void setDeskew(boolean deskew) {
+        this.deskew = deskew;
+    }
+
+    /**
+     * Sets the skew angle up to which pages are left as they are.
+     *
+     * @param minimumDeskewThreshold angle in degrees; the default is 0.05
+     */
+    public void setMinimumDeskewThreshold(double minimumDeskewThreshold) {
+        this.minimumDeskewThreshold = minimumDeskewThreshold;
+    }
+
+    /**
+     * Sets the binarization method. The default is <code>NONE</code>.
+     *
+     * @param binarization binarization method
+     */
+    public void setBinarization(Binarization binarization) {
+        if (binarization == null) {
+            throw new IllegalArgumentException("Binarization must not be null.");
+        }
+        this.binarization = binarization;
+    }
+
+    /**
+     * Sets a fixed scale factor, applied when no target resolution is set.
+     *
+     * @param scale scale factor; 1, the default, for none
+     */
+    public void setScale(float scale) {
+        if (scale <= 0) {
+            throw new IllegalArgumentException("Scale must be positive.");
+        }
+        this.scale = scale;
+    }
+
+    /**
+     * Sets the resolution pages are scaled to, e.g., 300 to enlarge low
+     * resolution scans. Pages that record no resolution are taken to be at
+     * the default resolution of <code>ImageIOHelper</code>, if one is set, and
+     * are otherwise scaled by the scale factor.
+     *
+     * @param dpi target resolution in dots per inch; 0, the default, for none
+     */
+    public void setTargetResolution(int dpi) {
+        if (dpi < 0) {
+            throw new IllegalArgumentException("Resolution must not be negative.");
+        }
+        this.targetResolution = dpi;
+    }
+
+    /**
+     * Gets the factor by which a page at a given resolution is scaled.
+     *
+     * @param dpi resolution of the page in dots per inch; 0 if unknown
+     * @return scale factor; 1 if the page is not scaled
+     */
+    public float getScaleFactor(int dpi) {
+        if (dpi <= 0) {
+            dpi = ImageIOHelper.getDefaultResolution();
+        }
+        float factor = targetResolution > 0 && dpi > 0 ? (float) targetResolution / dpi : scale;
+        return Math.abs(factor - 1) > 0.001f ? factor : 1;
+    }
+
+    /**
+     * Preprocesses a page.
+     *
+     * @param pix input image, which is not modified
+     * @return a new image, disposed by the caller
+     */
+    public Pix process(Pix pix) {
+        Pix page = Leptonica1.pixClone(pix);
+        try {
+            if (deskew) {
+                DeskewResult<Pix> deskewed = ImageIOHelper.deskew(page, minimumDeskewThreshold);
+                if (deskewed.isRotated()) {
+                    page = replace(page, deskewed.getImage());
+                }
+            }
+
+            if (binarization != Binarization.NONE && Leptonica1.pixGetDepth(page) > 1) {
+                page = replace(page, binarize(page, binarization));
+            }
+
+            int dpi = Leptonica1.pixGetXRes(page);
+            if (dpi <= 0) {
+                dpi = ImageIOHelper.getDefaultResolution();
+            }
+            float factor = getScaleFactor(dpi);
+            if (factor != 1) {
+                page = replace(page, Leptonica1.pixScale(page, factor, factor));
+                if (dpi > 0) {
+                    // also for pages that recorded no resolution
+                    int scaledDpi = Math.round(dpi * factor);
+                    Leptonica1.pixSetResolution(page, scaledDpi, scaledDpi);
+                }
+            }
+            return page;
+        } catch (RuntimeException | Error e) {
+            LeptUtils.dispose(page);
+            throw e;
+        }
+    }
+
+    /**
+     * Binarizes a gray or color image.
+     *
+     * @param pix input image of 2 or more bits per pixel
+     * @param binarization binarization method
+     * @return a new binary image
+     */
+    static Pix binarize(Pix pix, Binarization binarization) {
+        Pix gray = Leptonica1.pixConvertTo8(pix, 0);
+        if (gray == null) {
+            throw new IllegalStateException("Cannot convert image to grayscale.");
+        }
+        try {
+            PointerByReference binary = new PointerByReference();
+            int result;
+            if (binarization == Binarization.SAUVOLA) {
+                int nx = Math.max(1, Leptonica1.pixGetWidth(gray) / SAUVOLA_TILE_SIZE);
+                int ny = Math.max(1, Leptonica1.pixGetHeight(gray) / SAUVOLA_TILE_SIZE);
+                result = Leptonica1.pixSauvolaBinarizeTiled(gray, SAUVOLA_HALF_WINDOW, SAUVOLA_FACTOR, nx, ny, null, binary);
+            } else {
+                result = Leptonica1.pixOtsuAdaptiveThreshold(gray, OTSU_TILE_SIZE, OTSU_TILE_SIZE, 0, 0, OTSU_SCORE_FRACTION, null, binary);
+            }
+            if (result != 0 || binary.getValue() == null) {
+                throw new IllegalStateException("Cannot binarize image with " + binarization + ".");
+            }
+            return new Pix(binary.getValue());
+        } finally {
+            LeptUtils.dispose(gray);
+        }
+    }
+
+    /**
+     * Disposes an intermediate image in favor of the next one.
+     */
+    private static Pix replace(Pix previous, Pix next) {
+        if (next == null) {
+            throw new IllegalStateException("Leptonica failed to preprocess image.");
+        }
+        LeptUtils.dispose(previous);
+        return next;
+    }
+}
@@ -0,0 +1,245 @@
+/**
+ * Copyright @ 2026 Quan Nguyen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.sourceforge.tess4j.util;
+
+import com.ochafik.lang.jnaerator.runtime.NativeSize;
+import com.ochafik.lang.jnaerator.runtime.NativeSizeByReference;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import net.sourceforge.lept4j.ILeptonica;
+import net.sourceforge.lept4j.Leptonica1;
+import net.sourceforge.lept4j.Pix;
+
+/**
+ * Pages of an image file decoded natively by Leptonica, for TIFF, PNG, JPEG
+ * and PNM files. The pixels never enter the Java heap. Other formats are read
+ * with <code>PageSource</code>.
+ * <br>
+ * Pages of a multipage TIFF read in order are decoded without rescanning the
+ * file. The first page read out of order locates the directories of all
+ * pages, from their headers alone, so that any page is then decoded from
+ * its own directory. A pix source is not thread-safe.
+ */
+public class PixSource implements Closeable {
+
+    private final String path;
+    private final boolean tiff;
+    private final int pageCount;
+
+    private int nextPage;
+    private NativeSizeByReference nextOffset;
+    private long[] directoryOffsets;
+
+    private PixSource(String path, boolean tiff, int pageCount) {
+        this.path = path;
+        this.tiff = tiff;
+        this.pageCount = pageCount;
+    }
+
+    /**
+     * Checks whether Leptonica decodes an image file, from its content.
+     *
+     * @param inputFile input file
+     * @return true for TIFF, PNG, JPEG and PNM files
+     */
+    public static boolean isSupported(File inputFile) {
+        int format = getFormat(inputFile);
+        return isTiff(format) || format == ILeptonica.IFF_PNG
+                || format == ILeptonica.IFF_JFIF_JPEG || format == ILeptonica.IFF_PNM;
+    }
+
+    /**
+     * Opens the pages of an image file.
+     *
+     * @param inputFile input file, which must be supported
+     * @return the pages
+     * @throws IOException if the file is not supported or cannot be read
+     */
+    public static PixSource open(File inputFile) throws IOException {
+        if (!isSupported(inputFile)) {
+            throw new IOException("Unsupported image format: " + inputFile.getName());
+        }
+
+        String path = inputFile.getPath();
+        if (!isTiff(getFormat(inputFile))) {
+            return new PixSource(path, false, 1);
+        }
+
+        ILeptonica.FILE fp = Leptonica1.lept_fopen(path, "rb");
+        if (fp == null) {
+            throw new IOException("Cannot open " + path);
+        }
+        try {
+            IntBuffer count = newIntBuffer();
+            if (Leptonica1.tiffGetCount(fp, count) != 0) {
+                throw new IOException("Cannot count the pages of " + path);
+            }
+            return new PixSource(path, true, count.get(0));
+        } finally {
+            Leptonica1.lept_fclose(fp);
+        }
+    }
+
+    /**
+     * Gets the number of pages.
+     *
+     * @return number of pages
+     */
+    public int getPageCount() {
+        return pageCount;
+    }
+
+    /**
+     * Decodes a page. The result must be disposed of with
+     * <code>LeptUtils.dispose</code>.
+     *
+     * @param pageIndex page index, zero-based
+     * @return the page
+     * @throws IOException
+     */
+    public Pix getPage(int pageIndex) throws IOException {
+        if (pageIndex < 0 || pageIndex >= pageCount) {
+            throw new IndexOutOfBoundsException("Page index: " + pageIndex);
+        }
+
+        Pix pix;
+        if (!tiff) {
+            pix = Leptonica1.pixRead(path);
+        } else if (pageIndex == nextPage && nextOffset != null) {
+            // continue from the directory after the previous page
+            pix = Leptonica1.pixReadFromMultipageTiff(path, nextOffset);
+        } else if (pageIndex == 0) {
+            nextOffset = new NativeSizeByReference();
+            pix = Leptonica1.pixReadFromMultipageTiff(path, nextOffset);
+        } else {
+            if (directoryOffsets == null) {
+                directoryOffsets = readDirectoryOffsets(path, pageCount);
+            }
+            if (pageIndex < directoryOffsets.length) {
+                // resume sequential reading from the page's own directory
+                nextOffset = new NativeSizeByReference(new NativeSize(directoryOffsets[pageIndex]));
+                pix = Leptonica1.pixReadFromMultipageTiff(path, nextOffset);
+            } else {
+                nextOffset = null;
+                pix = Leptonica1.pixReadTiff(path, pageIndex);
+            }
+        }
+
+        if (pix == null) {
+            throw new IOException("Cannot decode page " + (pageIndex + 1) + " of " + path);
+        }
+        nextPage = pageIndex + 1;
+        return pix;
+    }
+
+    /**
+     * Releases the source. Decoding opens the file for each page, so nothing
+     * is held between pages.
+     */
+    @Override
+    public void close() {
+        nextOffset = null;
+        directoryOffsets = null;
+    }
+
+    /**
+     * Reads the offsets of the image file directories of a TIFF file, by
+     * following the chain of directories without decoding any page.
+     *
+     * @param path TIFF file
+     * @param limit maximum number of directories to read
+     * @return offsets of the directories, in page order; fewer than the pages
+     * if the chain cannot be followed
+     */
+    static long[] readDirectoryOffsets(String path, int limit) {
+        long[] offsets = new long[limit];
+        int count = 0;
+        try (FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ)) {
+            ByteBuffer header = read(channel, 0, 16);
+            if (header.get(0) == 'M' && header.get(1) == 'M') {
+                header.order(ByteOrder.BIG_ENDIAN);
+            } else if (header.get(0) == 'I' && header.get(1) == 'I') {
+                header.order(ByteOrder.LITTLE_ENDIAN);
+            } else {
+                return new long[0];
+            }
+            boolean bigTiff = header.getShort(2) == 43;
+            long offset = bigTiff ? header.getLong(8) : header.getInt(4) & 0xFFFFFFFFL;
+            while (offset > 0 && count < limit) {
+                offsets[count++] = offset;
+                if (bigTiff) {
+                    long entries = read(channel, offset, 8).order(header.order()).getLong(0);
+                    offset = read(channel, offset + 8 + entries * 20, 8).order(header.order()).getLong(0);
+                } else {
+                    int entries = read(channel, offset, 2).order(header.order()).getShort(0) & 0xFFFF;
+                    offset = read(channel, offset + 2 + entries * 12L, 4).order(header.order()).getInt(0) & 0xFFFFFFFFL;
+                }
+            }
+        } catch (IOException e) {
+            // fewer directories; the remaining pages are located by Leptonica
+        }
+        return count == limit ? offsets : Arrays.copyOf(offsets, count);
+    }
+
+    private static ByteBuffer read(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of file");
+            }
+        }
+        return buffer;
+    }
+
+    private static int getFormat(File inputFile) {
+        if (!inputFile.isFile()) {
+            return ILeptonica.IFF_UNKNOWN;
+        }
+        IntBuffer format = newIntBuffer();
+        if (Leptonica1.findFileFormat(inputFile.getPath(), format) != 0) {
+            return ILeptonica.IFF_UNKNOWN;
+        }
+        return format.get(0);
+    }
+
+    private static boolean isTiff(int format) {
+        switch (format) {
+            case ILeptonica.IFF_TIFF:
+            case ILeptonica.IFF_TIFF_PACKBITS:
+            case ILeptonica.IFF_TIFF_RLE:
+            case ILeptonica.IFF_TIFF_G3:
+            case ILeptonica.IFF_TIFF_G4:
+            case ILeptonica.IFF_TIFF_LZW:
+            case ILeptonica.IFF_TIFF_ZIP:
+            case ILeptonica.IFF_TIFF_JPEG:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static IntBuffer newIntBuffer() {
+        return ByteBuffer.allocateDirect(4).order(ByteOrder.nativeOrder()).asIntBuffer();
+    }
+}
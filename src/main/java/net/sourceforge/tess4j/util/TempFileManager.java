@@ -0,0 +1,476 @@
+/**
+ * Copyright @ 2026 Quan Nguyen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.sourceforge.tess4j.util;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.FileUtils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Places and cleans up the temporary files of Tess4J.
+ * <br>
+ * All files live under a root directory, by default <code>tess4j</code> in
+ * <code>java.io.tmpdir</code>; set the <code>tess4j.tmpdir</code> system
+ * property to move it, e.g., to a tmpfs such as <code>/dev/shm</code>.
+ * Extracted native libraries are kept directly under the root.
+ * <br>
+ * Working files of a job are created in a <code>Scope</code>, deleted as a
+ * whole when the scope is closed. Scopes go in a directory of the process
+ * under <code>work</code>, which holds a lock while the process runs, so that
+ * directories left by processes that died are recognized and swept when the
+ * default manager starts. A quota bounds the size of the working files:
+ * creating a file in a scope, or writing each part of a large file with
+ * <code>Scope.awaitQuota</code>, waits until the other scopes take up less
+ * than the quota.
+ * <br>
+ * Files created outside any scope, such as the output of
+ * <code>PdfBoxUtilities.convertPdf2Tiff(File)</code>, belong to the caller.
+ * They go under <code>output</code>, are not counted against the quota, and
+ * are left in place when the process exits, like files from
+ * <code>File.createTempFile</code>. The overloads that take a scope, such as
+ * <code>PdfBoxUtilities.convertPdf2Tiff(File, Scope)</code>, create their
+ * output in the scope instead.
+ */
+public class TempFileManager {
+
+    /**
+     * System property for the root directory.
+     */
+    public static final String ROOT_PROPERTY = "tess4j.tmpdir";
+
+    static final String WORK_DIR = "work";
+    static final String OUTPUT_DIR = "output";
+    static final String LOCK_FILE = ".lock";
+    static final long POLL_MILLIS = 100;
+
+    private static TempFileManager defaultManager;
+
+    private final File root;
+    private volatile long quota = Long.MAX_VALUE;
+    private volatile long quotaTimeoutMillis = 60000;
+
+    private File workDir;
+    private FileChannel lockChannel;
+    private FileLock lock;
+    private final Set<Scope> scopes = new HashSet<>();
+
+    private static final Logger logger = LoggerFactory.getLogger(new LoggHelper().toString());
+
+    /**
+     * Constructor.
+     *
+     * @param root root directory
+     */
+    public TempFileManager(File root) {
+        this.root = root;
+    }
+
+    /**
+     * Gets the default root directory, from the <code>tess4j.tmpdir</code>
+     * system property.
+     *
+     * @return root directory
+     */
+    public static File getDefaultRoot() {
+        String path = System.getProperty(ROOT_PROPERTY);
+        return path != null ? new File(path) : new File(System.getProperty("java.io.tmpdir"), "tess4j");
+    }
+
+    /**
+     * Gets the shared manager, at the default root. Orphaned working files are
+     * swept the first time, and the scopes of the process are deleted when the
+     * JVM exits.
+     *
+     * @return the default manager
+     */
+    public static synchronized TempFileManager getDefault() {
+        if (defaultManager == null) {
+            final TempFileManager manager = new TempFileManager(getDefaultRoot());
+            manager.sweep();
+            Runtime.getRuntime().addShutdownHook(new Thread(manager::deleteWorkFiles));
+            defaultManager = manager;
+        }
+        return defaultManager;
+    }
+
+    /**
+     * Gets the root directory.
+     *
+     * @return root directory
+     */
+    public File getRoot() {
+        return root;
+    }
+
+    /**
+     * Sets the quota of working files. Creating a file in a scope while the
+     * other scopes take up the quota or more waits until they free space; the
+     * scope's own files are not counted, since only it can free them.
+     *
+     * @param maxBytes maximum size of the working files;
+     * <code>Long.MAX_VALUE</code> for no limit, the default
+     * @param timeoutMillis how long to wait for space before failing
+     */
+    public void setQuota(long maxBytes, long timeoutMillis) {
+        if (maxBytes <= 0 || timeoutMillis < 0) {
+            throw new IllegalArgumentException("Invalid quota: " + maxBytes + " bytes, " + timeoutMillis + " ms");
+        }
+        this.quota = maxBytes;
+        this.quotaTimeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Gets the quota of working files.
+     *
+     * @return maximum size in bytes
+     */
+    public long getQuota() {
+        return quota;
+    }
+
+    /**
+     * Gets the size of the working files in the open scopes of this manager.
+     *
+     * @return size in bytes
+     */
+    public long getUsage() {
+        return getUsage(null);
+    }
+
+    /**
+     * Creates a file outside any scope, for output handed to the caller, who
+     * deletes it. It is not counted against the quota and is not deleted when
+     * the process exits.
+     *
+     * @param prefix file name prefix
+     * @param suffix file name suffix, e.g., ".tif"
+     * @return an empty file
+     * @throws IOException if the file cannot be created
+     */
+    public File createTempFile(String prefix, String suffix) throws IOException {
+        return Files.createTempFile(getOutputDir().toPath(), prefix, suffix).toFile();
+    }
+
+    /**
+     * Creates a directory outside any scope, for output handed to the caller,
+     * who deletes it. It is not counted against the quota and is not deleted
+     * when the process exits.
+     *
+     * @param prefix directory name prefix
+     * @return an empty directory
+     * @throws IOException if the directory cannot be created
+     */
+    public File createTempDirectory(String prefix) throws IOException {
+        return Files.createTempDirectory(getOutputDir().toPath(), prefix).toFile();
+    }
+
+    /**
+     * Opens a scope for the working files of a job.
+     *
+     * @return the scope, to be closed when the job is done
+     * @throws IOException
+     */
+    public Scope openScope() throws IOException {
+        Scope scope = new Scope(Files.createTempDirectory(getWorkDir().toPath(), "job").toFile());
+        synchronized (this) {
+            scopes.add(scope);
+        }
+        return scope;
+    }
+
+    /**
+     * Deletes the working directories of processes that are no longer
+     * running.
+     *
+     * @return number of directories deleted
+     */
+    public int sweep() {
+        File[] dirs = new File(root, WORK_DIR).listFiles(File::isDirectory);
+        if (dirs == null) {
+            return 0;
+        }
+
+        int count = 0;
+        for (File dir : dirs) {
+            synchronized (this) {
+                if (dir.equals(workDir)) {
+                    continue;
+                }
+            }
+            if (isOrphan(dir)) {
+                FileUtils.deleteQuietly(dir);
+                count++;
+            }
+        }
+        if (count > 0) {
+            logger.info("Swept " + count + " orphaned working directories from " + root);
+        }
+        return count;
+    }
+
+    /**
+     * Deletes the scopes of the process. Files created outside a scope are
+     * kept.
+     */
+    public synchronized void deleteWorkFiles() {
+        scopes.clear();
+        if (workDir == null) {
+            return;
+        }
+        try {
+            lock.release();
+            lockChannel.close();
+        } catch (IOException e) {
+            logger.warn(e.getMessage(), e);
+        }
+        FileUtils.deleteQuietly(workDir);
+        workDir = null;
+        notifyAll();
+    }
+
+    /**
+     * Gets the working directory of the process, creating it and locking it
+     * for the life of the process on first use.
+     */
+    private synchronized File getWorkDir() throws IOException {
+        if (workDir == null) {
+            File dir = new File(new File(root, WORK_DIR), UUID.randomUUID().toString());
+            Files.createDirectories(dir.toPath());
+            @SuppressWarnings("resource")
+            FileChannel channel = new RandomAccessFile(new File(dir, LOCK_FILE), "rw").getChannel();
+            lock = channel.lock();
+            lockChannel = channel;
+            workDir = dir;
+        }
+        return workDir;
+    }
+
+    /**
+     * Gets the directory of files created outside any scope.
+     */
+    private File getOutputDir() throws IOException {
+        File dir = new File(root, OUTPUT_DIR);
+        Files.createDirectories(dir.toPath());
+        return dir;
+    }
+
+    /**
+     * Gets the size of the working files in the open scopes, measured outside
+     * of the lock.
+     *
+     * @param excluded scope not to count; <code>null</code> for none
+     */
+    private long getUsage(Scope excluded) {
+        List<Scope> open;
+        synchronized (this) {
+            open = new ArrayList<>(scopes);
+        }
+        long usage = 0;
+        for (Scope scope : open) {
+            if (scope != excluded) {
+                usage += scope.getSize();
+            }
+        }
+        return usage;
+    }
+
+    /**
+     * Waits until the scopes other than the caller's take up less than the
+     * quota.
+     *
+     * @param caller scope of the file to be created
+     */
+    private void awaitQuota(Scope caller) throws IOException {
+        if (quota == Long.MAX_VALUE) {
+            return;
+        }
+
+        long deadline = System.currentTimeMillis() + quotaTimeoutMillis;
+        long usage;
+        while ((usage = getUsage(caller)) >= quota) {
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                throw new QuotaExceededException("Temporary file quota exceeded: " + usage + " of " + quota + " bytes used in " + root);
+            }
+            synchronized (this) {
+                try {
+                    // files deleted within scopes free space without notice
+                    wait(Math.min(remaining, POLL_MILLIS));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException(e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the size of a file or directory, allowing for files deleted while
+     * it is walked.
+     */
+    private static long sizeOf(File file) {
+        File[] children = file.listFiles();
+        if (children == null) {
+            return file.length();
+        }
+        long size = 0;
+        for (File child : children) {
+            size += sizeOf(child);
+        }
+        return size;
+    }
+
+    /**
+     * Checks whether the process of a working directory is gone, by trying
+     * its lock.
+     */
+    private static boolean isOrphan(File dir) {
+        File lockFile = new File(dir, LOCK_FILE);
+        if (!lockFile.isFile()) {
+            // allow for a process that has not locked it yet
+            return dir.lastModified() < System.currentTimeMillis() - 3600000;
+        }
+        try (FileChannel channel = new RandomAccessFile(lockFile, "rw").getChannel()) {
+            FileLock orphanLock = channel.tryLock();
+            if (orphanLock == null) {
+                return false;
+            }
+            orphanLock.release();
+            return true;
+        } catch (OverlappingFileLockException e) {
+            // held by another manager of this process
+            return false;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Thrown when the quota stays exceeded, so that it is told apart from
+     * failures to read or write a file.
+     */
+    static class QuotaExceededException extends IOException {
+
+        private static final long serialVersionUID = 1L;
+
+        QuotaExceededException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Working files of a job, deleted together when the scope is closed.
+     */
+    public class Scope implements Closeable {
+
+        private final File dir;
+        private long size;
+        private long measuredAt;
+        private boolean measured;
+
+        Scope(File dir) {
+            this.dir = dir;
+        }
+
+        /**
+         * Gets the size of the files of the scope. It is measured at most
+         * once per polling interval, however many jobs wait on the quota.
+         */
+        synchronized long getSize() {
+            long now = System.nanoTime();
+            if (!measured || now - measuredAt >= TimeUnit.MILLISECONDS.toNanos(POLL_MILLIS)) {
+                size = sizeOf(dir);
+                measuredAt = now;
+                measured = true;
+            }
+            return size;
+        }
+
+        /**
+         * Gets the directory of the scope.
+         *
+         * @return the directory
+         */
+        public File getDirectory() {
+            return dir;
+        }
+
+        /**
+         * Waits until the other scopes take up less than the quota, before
+         * more is written to the files of the scope.
+         *
+         * @throws IOException if the quota stays exceeded
+         */
+        public void awaitQuota() throws IOException {
+            TempFileManager.this.awaitQuota(this);
+        }
+
+        /**
+         * Creates a file in the scope.
+         *
+         * @param prefix file name prefix
+         * @param suffix file name suffix, e.g., ".tif"
+         * @return an empty file
+         * @throws IOException if the file cannot be created or the quota stays
+         * exceeded
+         */
+        public File createTempFile(String prefix, String suffix) throws IOException {
+            awaitQuota();
+            return Files.createTempFile(dir.toPath(), prefix, suffix).toFile();
+        }
+
+        /**
+         * Creates a directory in the scope.
+         *
+         * @param prefix directory name prefix
+         * @return an empty directory
+         * @throws IOException if the directory cannot be created or the quota
+         * stays exceeded
+         */
+        public File createTempDirectory(String prefix) throws IOException {
+            awaitQuota();
+            return Files.createTempDirectory(dir.toPath(), prefix).toFile();
+        }
+
+        /**
+         * Deletes the files of the scope.
+         */
+        @Override
+        public void close() {
+            FileUtils.deleteQuietly(dir);
+            synchronized (TempFileManager.this) {
+                scopes.remove(this);
+                TempFileManager.this.notifyAll();
+            }
+        }
+    }
+}
@@ -0,0 +1,177 @@
+/**
+ * Copyright @ 2026 Quan Nguyen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.sourceforge.tess4j.util;
+
+import java.awt.image.RenderedImage;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.Locale;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.stream.ImageOutputStream;
+
+import com.github.jaiimageio.plugins.tiff.TIFFImageWriteParam;
+
+/**
+ * Writes a multi-page TIFF image one page at a time. Each page is encoded as
+ * soon as it is appended, so only the page being written is held in memory,
+ * however many pages the image has. Appended images and their metadata are
+ * not modified.
+ * <br>
+ * With automatic compression, bilevel pages are compressed with CCITT T.6
+ * (G4) and other pages with LZW. Each page records its resolution, or 300
+ * DPI if it has none.
+ */
+public class TiffWriter implements Closeable {
+
+    /**
+     * Compression chosen for each page from its color model.
+     */
+    public static final String AUTO_COMPRESSION = "auto";
+
+    static final String G4_COMPRESSION = "CCITT T.6";
+    static final String LZW_COMPRESSION = "LZW";
+    static final int DEFAULT_DPI = 300;
+
+    private final ImageOutputStream ios;
+    private final ImageWriter writer;
+    private final String compressionType;
+    private int pageCount;
+
+    /**
+     * Constructor. Pages are compressed automatically.
+     *
+     * @param outputTiff output file, replaced if it exists
+     * @throws IOException
+     */
+    public TiffWriter(File outputTiff) throws IOException {
+        this(outputTiff, AUTO_COMPRESSION);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param outputTiff output file, replaced if it exists
+     * @param compressionType <code>AUTO_COMPRESSION</code>, a compression
+     * type of the TIFF writer, such as "LZW", "Deflate", "CCITT T.6" or
+     * "PackBits", or <code>null</code> for the writer's default
+     * @throws IOException
+     */
+    public TiffWriter(File outputTiff, String compressionType) throws IOException {
+        this.compressionType = compressionType;
+        if (outputTiff.exists() && !outputTiff.delete()) {
+            throw new IOException("Cannot replace " + outputTiff);
+        }
+        ios = ImageIO.createImageOutputStream(outputTiff);
+        if (ios == null) {
+            throw new IOException("Cannot write " + outputTiff);
+        }
+        writer = ImageIOFactory.createWriter(ImageIOHelper.TIFF_FORMAT);
+        try {
+            writer.setOutput(ios);
+            writer.prepareWriteSequence(writer.getDefaultStreamMetadata(new TIFFImageWriteParam(Locale.US)));
+        } catch (IOException | RuntimeException e) {
+            writer.dispose();
+            ios.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Appends a page, at the resolution recorded in its metadata. Without a
+     * compression type, the page is written with its own metadata, which
+     * keeps its original compression where the TIFF writer supports it.
+     *
+     * @param page page image
+     * @throws IOException
+     */
+    public void append(IIOImage page) throws IOException {
+        if (compressionType == null && page.getMetadata() != null) {
+            writer.writeToSequence(page, new TIFFImageWriteParam(Locale.US));
+            pageCount++;
+            return;
+        }
+
+        int dpi = ImageIOHelper.getResolution(page);
+        append(page.getRenderedImage(), dpi, dpi);
+    }
+
+    /**
+     * Appends a page.
+     *
+     * @param image page image
+     * @param dpiX horizontal resolution; 0 for the default
+     * @param dpiY vertical resolution; 0 for the default
+     * @throws IOException
+     */
+    public void append(RenderedImage image, int dpiX, int dpiY) throws IOException {
+        TIFFImageWriteParam param = new TIFFImageWriteParam(Locale.US);
+        String type = AUTO_COMPRESSION.equals(compressionType) ? getCompressionType(image) : compressionType;
+        if (type != null) {
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionType(type);
+        }
+
+        ImageTypeSpecifier imageType = ImageTypeSpecifier.createFromRenderedImage(image);
+        IIOMetadata imageMetadata = writer.getDefaultImageMetadata(imageType, param);
+        imageMetadata = ImageIOHelper.setDPIViaAPI(imageMetadata,
+                dpiX > 0 ? dpiX : DEFAULT_DPI, dpiY > 0 ? dpiY : DEFAULT_DPI);
+        writer.writeToSequence(new IIOImage(image, null, imageMetadata), param);
+        pageCount++;
+    }
+
+    /**
+     * Gets the number of pages written.
+     *
+     * @return number of pages
+     */
+    public int getPageCount() {
+        return pageCount;
+    }
+
+    /**
+     * Completes the image and closes the file.
+     *
+     * @throws IOException
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            if (pageCount > 0) {
+                writer.endWriteSequence();
+            }
+        } finally {
+            writer.dispose();
+            ios.close();
+        }
+    }
+
+    /**
+     * Chooses the compression of a page: G4 for bilevel images, LZW
+     * otherwise.
+     *
+     * @param image page image
+     * @return compression type
+     */
+    static String getCompressionType(RenderedImage image) {
+        return image.getColorModel().getPixelSize() == 1 ? G4_COMPRESSION : LZW_COMPRESSION;
+    }
+}
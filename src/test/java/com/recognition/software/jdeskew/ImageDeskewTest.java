@@ -0,0 +1,174 @@
+/*
+ * Copyright 2026 Quan Nguyen.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.recognition.software.jdeskew;
+
+import net.sourceforge.tess4j.util.LoggHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ImageDeskewTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(new LoggHelper().toString());
+    private static final String TEST_RESOURCES_DATA_PATH = "src/test/resources/test-data/";
+
+    private static final int[] IMAGE_TYPES = {
+        BufferedImage.TYPE_BYTE_BINARY, BufferedImage.TYPE_BYTE_GRAY, BufferedImage.TYPE_INT_RGB,
+        BufferedImage.TYPE_INT_ARGB, BufferedImage.TYPE_3BYTE_BGR, BufferedImage.TYPE_4BYTE_ABGR
+    };
+
+    /**
+     * Test of getBlackRow method, of class ImageUtil, against isBlack.
+     *
+     * @throws java.lang.Exception
+     */
+    @Test
+    public void testGetBlackRow() throws Exception {
+        logger.info("getBlackRow");
+        BufferedImage src = ImageIO.read(new File(TEST_RESOURCES_DATA_PATH, "eurotext_deskew.png"));
+        for (int type : IMAGE_TYPES) {
+            BufferedImage bi = convert(src, type);
+            // subimages share the data buffer of their parent at an offset
+            for (BufferedImage image : new BufferedImage[]{bi, bi.getSubimage(13, 7, 301, 211)}) {
+                boolean[] row = new boolean[image.getWidth()];
+                boolean[] grayTable = ImageUtil.getBlackGrayTable(image);
+                for (int y = 0; y < image.getHeight(); y += 3) {
+                    ImageUtil.getBlackRow(image, y, row, grayTable);
+                    for (int x = 0; x < image.getWidth(); x++) {
+                        assertEquals(ImageUtil.isBlack(image, x, y), row[x], "type " + type + " at " + x + "," + y);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Test of getSkewAngle method, of class ImageDeskew. The angles are those
+     * of the former pixel-by-pixel implementation.
+     *
+     * @throws java.lang.Exception
+     */
+    @Test
+    public void testGetSkewAngle() throws Exception {
+        logger.info("getSkewAngle");
+        BufferedImage skewed = ImageIO.read(new File(TEST_RESOURCES_DATA_PATH, "eurotext_deskew.png"));
+        assertEquals(19.30526315789474, new ImageDeskew(skewed).getSkewAngle());
+        assertEquals(19.30526315789474, new ImageDeskew(convert(skewed, BufferedImage.TYPE_INT_RGB)).getSkewAngle());
+        assertEquals(19.30526315789474, new ImageDeskew(convert(skewed, BufferedImage.TYPE_3BYTE_BGR)).getSkewAngle());
+        assertEquals(18.07368421052632, new ImageDeskew(convert(skewed, BufferedImage.TYPE_BYTE_BINARY)).getSkewAngle());
+
+        BufferedImage binary = ImageIO.read(new File(TEST_RESOURCES_DATA_PATH, "eurotext.bmp"));
+        assertEquals(0.7263157894736851, new ImageDeskew(binary).getSkewAngle());
+        assertEquals(0.8000000000000007, new ImageDeskew(convert(binary, BufferedImage.TYPE_BYTE_GRAY)).getSkewAngle());
+    }
+
+    /**
+     * Test of setParallelism method, of class ImageDeskew. Striped
+     * accumulation finds the same angle as serial.
+     *
+     * @throws java.lang.Exception
+     */
+    @Test
+    public void testSetParallelism() throws Exception {
+        logger.info("setParallelism");
+        BufferedImage skewed = ImageIO.read(new File(TEST_RESOURCES_DATA_PATH, "eurotext_deskew.png"));
+        BufferedImage binary = ImageIO.read(new File(TEST_RESOURCES_DATA_PATH, "eurotext.bmp"));
+        for (BufferedImage image : new BufferedImage[]{skewed, binary, convert(skewed, BufferedImage.TYPE_BYTE_GRAY)}) {
+            double expected = new ImageDeskew(image).getSkewAngle();
+            for (int parallelism : new int[]{2, 3, 4, 7}) {
+                ImageDeskew instance = new ImageDeskew(image);
+                instance.setParallelism(parallelism);
+                assertEquals(expected, instance.getSkewAngle(), "parallelism " + parallelism);
+            }
+        }
+
+        ImageDeskew instance = new ImageDeskew(skewed);
+        instance.setParallelism(4);
+        assertEquals(19.30526315789474, instance.getSkewAngle());
+        // the accumulator is rebuilt on each call
+        assertEquals(19.30526315789474, instance.getSkewAngle());
+        assertThrows(IllegalArgumentException.class, () -> instance.setParallelism(0));
+    }
+
+    /**
+     * Test of setSearchRange method, of class ImageDeskew.
+     *
+     * @throws java.lang.Exception
+     */
+    @Test
+    public void testSetSearchRange() throws Exception {
+        logger.info("setSearchRange");
+        BufferedImage skewed = ImageIO.read(new File(TEST_RESOURCES_DATA_PATH, "eurotext_deskew.png"));
+        ImageDeskew instance = new ImageDeskew(skewed);
+        // the default range
+        instance.setSearchRange(-20, 19.6, 0.2);
+        assertEquals(19.30526315789474, instance.getSkewAngle());
+        assertEquals(-20, instance.getAlpha(0));
+
+        BufferedImage binary = ImageIO.read(new File(TEST_RESOURCES_DATA_PATH, "eurotext.bmp"));
+        ImageDeskew narrow = new ImageDeskew(binary);
+        narrow.setSearchRange(-5, 5, 0.1);
+        assertEquals(0.7263157894736851, narrow.getSkewAngle(), 0.2);
+        assertThrows(IllegalArgumentException.class, () -> instance.setSearchRange(5, -5, 0.1));
+        assertThrows(IllegalArgumentException.class, () -> instance.setSearchRange(-5, 5, 0));
+    }
+
+    /**
+     * Test of setPyramidScale method, of class ImageDeskew. The coarse angle
+     * refined at full resolution is close to that of the full search.
+     *
+     * @throws java.lang.Exception
+     */
+    @Test
+    public void testSetPyramidScale() throws Exception {
+        logger.info("setPyramidScale");
+        BufferedImage skewed = ImageIO.read(new File(TEST_RESOURCES_DATA_PATH, "eurotext_deskew.png"));
+        BufferedImage binary = ImageIO.read(new File(TEST_RESOURCES_DATA_PATH, "eurotext.bmp"));
+        for (BufferedImage image : new BufferedImage[]{skewed, binary}) {
+            double expected = new ImageDeskew(image).getSkewAngle();
+            ImageDeskew instance = new ImageDeskew(image);
+            instance.setPyramidScale(ImageDeskew.DEFAULT_PYRAMID_SCALE);
+            double angle = instance.getSkewAngle();
+            assertEquals(expected, angle, 0.1);
+
+            instance.setParallelism(3);
+            assertEquals(angle, instance.getSkewAngle());
+
+            // a refinement of one step keeps the coarse angle
+            instance.setRefinement(0, 0.05);
+            assertEquals(expected, instance.getSkewAngle(), 0.5);
+        }
+
+        ImageDeskew instance = new ImageDeskew(skewed);
+        assertThrows(IllegalArgumentException.class, () -> instance.setPyramidScale(0));
+        assertThrows(IllegalArgumentException.class, () -> instance.setRefinement(1, 0));
+    }
+
+    private static BufferedImage convert(BufferedImage src, int type) {
+        if (src.getType() == type) {
+            return src;
+        }
+        BufferedImage bi = new BufferedImage(src.getWidth(), src.getHeight(), type);
+        bi.getGraphics().drawImage(src, 0, 0, null);
+        return bi;
+    }
+}
@@ -0,0 +1,63 @@
+/**
+ * Copyright @ 2026 Quan Nguyen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.sourceforge.tess4j;
+
+import net.sourceforge.tess4j.util.LoggHelper;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class PageSelectionTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(new LoggHelper().toString());
+
+    /**
+     * Test of getPageIndices method, of class PageSelection.
+     */
+    @Test
+    public void testGetPageIndices() {
+        logger.info("getPageIndices");
+        assertArrayEquals(new int[]{0, 1, 2}, PageSelection.all().getPageIndices(3));
+        assertArrayEquals(new int[]{1, 2}, PageSelection.range(2, 3).getPageIndices(5));
+        assertArrayEquals(new int[]{0, 1}, PageSelection.first(10).getPageIndices(2));
+        // sorted and distinct; pages beyond the end ignored
+        assertArrayEquals(new int[]{0, 2}, PageSelection.of(3, 1, 3, 9).getPageIndices(4));
+        assertArrayEquals(new int[0], PageSelection.range(5, 6).getPageIndices(4));
+    }
+
+    /**
+     * Test of parse method, of class PageSelection.
+     */
+    @Test
+    public void testParse() {
+        logger.info("parse");
+        PageSelection instance = PageSelection.parse("1-3, 7,10-");
+        assertArrayEquals(new int[]{0, 1, 2, 6, 9, 10, 11}, instance.getPageIndices(12));
+        assertTrue(instance.contains(100));
+        assertFalse(instance.contains(8));
+        assertFalse(instance.isAll());
+        assertEquals("1-3,7,10-", instance.toString());
+        assertEquals(instance, PageSelection.parse(instance.toString()));
+
+        assertThrows(IllegalArgumentException.class, () -> PageSelection.parse("0-2"));
+        assertThrows(IllegalArgumentException.class, () -> PageSelection.parse("3-1"));
+        assertThrows(IllegalArgumentException.class, () -> PageSelection.parse("a"));
+        assertThrows(IllegalArgumentException.class, () -> PageSelection.parse(" , "));
+    }
+}
@@ -0,0 +1,70 @@
+/**
+ * Copyright @ 2026 Quan Nguyen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.sourceforge.tess4j;
+
+import java.io.File;
+import java.util.List;
+
+import net.sourceforge.tess4j.util.LoggHelper;
+import net.sourceforge.tess4j.util.PdfPageRenderer;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class PdfTextLayerTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(new LoggHelper().toString());
+
+    private final String testResourcesDataPath = "src/test/resources/test-data";
+
+    /**
+     * Test of getText and getWords methods on a born-digital PDF, of class
+     * PdfTextLayer.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testGetText_TextLayer() throws Exception {
+        logger.info("getText with text layer");
+        File pdfFile = new File(this.testResourcesDataPath, "multipage-pdf.pdf");
+        try (PdfTextLayer instance = new PdfTextLayer(pdfFile)) {
+            String text = instance.getText(0);
+            assertTrue(PdfTextLayer.hasText(text));
+            assertTrue(text.contains("Seite 1 von 5"));
+
+            List<Word> words = instance.getWords(0, PdfPageRenderer.DEFAULT_DPI);
+            assertFalse(words.isEmpty());
+            assertTrue(words.get(0).getBoundingBox().width > 0);
+        }
+    }
+
+    /**
+     * Test of getText method on an image-only PDF, of class PdfTextLayer.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testGetText_ImageOnly() throws Exception {
+        logger.info("getText without text layer");
+        File pdfFile = new File(this.testResourcesDataPath, "eurotext.pdf");
+        try (PdfTextLayer instance = new PdfTextLayer(pdfFile)) {
+            assertFalse(PdfTextLayer.hasText(instance.getText(0)));
+        }
+    }
+}
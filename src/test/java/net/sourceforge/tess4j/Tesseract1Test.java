@@ -81,6 +81,27 @@ public class Tesseract1Test {
         assertEquals(expResult, result.substring(0, expResult.length()));
     }
 
+    /**
+     * Test of open method, of class Tesseract1.
+     *
+     * @throws Exception while processing image.
+     */
+    @Test
+    public void testDoOCR_File_Session() throws Exception {
+        logger.info("doOCR on a PNG image in a long-lived session");
+        File imageFile = new File(this.testResourcesDataPath, "eurotext.png");
+        String expResult = "The (quick) [brown] {fox} jumps!\nOver the $43,456.78 <lazy> #90 dog";
+        try (Tesseract1 session = new Tesseract1()) {
+            session.setDatapath(new File(datapath).getPath());
+            session.open();
+            for (int i = 0; i < 3; i++) {
+                String result = session.doOCR(imageFile);
+                logger.info(result);
+                assertEquals(expResult, result.substring(0, expResult.length()));
+            }
+        }
+    }
+
     /**
      * Test of doOCR method, of class Tesseract.
      *
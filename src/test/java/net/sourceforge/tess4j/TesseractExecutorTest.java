@@ -0,0 +1,76 @@
+/**
+ * Copyright @ 2026 Quan Nguyen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.sourceforge.tess4j;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import net.sourceforge.tess4j.util.LoggHelper;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class TesseractExecutorTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(new LoggHelper().toString());
+
+    /**
+     * Test of submit method with a key, of class TesseractExecutor. Jobs on
+     * the same key run one at a time in order without holding the threads
+     * other jobs need.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testSubmit_Key() throws Exception {
+        logger.info("submit with key");
+        try (TesseractExecutor executor = new TesseractExecutor(2, 16)) {
+            Object key = new Object();
+            CountDownLatch gate = new CountDownLatch(1);
+            AtomicInteger running = new AtomicInteger();
+            List<Integer> order = new ArrayList<>();
+            List<CompletableFuture<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < 6; i++) {
+                int job = i;
+                futures.add(executor.submit(key, () -> {
+                    assertEquals(1, running.incrementAndGet());
+                    gate.await();
+                    order.add(job);
+                    running.decrementAndGet();
+                    return job;
+                }));
+            }
+
+            // the first job holds one thread; the other is free
+            assertEquals("free", executor.submit(() -> "free").get(5, TimeUnit.SECONDS));
+
+            gate.countDown();
+            for (int i = 0; i < futures.size(); i++) {
+                assertEquals(i, (int) futures.get(i).get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(Arrays.asList(0, 1, 2, 3, 4, 5), order);
+            assertEquals(0, executor.getPendingCount());
+        }
+    }
+}
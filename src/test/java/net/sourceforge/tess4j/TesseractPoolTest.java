@@ -0,0 +1,174 @@
+/**
+ * Copyright @ 2026 Quan Nguyen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.sourceforge.tess4j;
+
+import java.io.File;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import net.sourceforge.tess4j.util.LoggHelper;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class TesseractPoolTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(new LoggHelper().toString());
+
+    private final String datapath = "src/main/resources/tessdata";
+    private final String testResourcesDataPath = "src/test/resources/test-data";
+
+    TesseractPool pool;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        pool = new TesseractPool(new TesseractPool.Key(new File(datapath).getPath(), "eng"), 2, 1, TesseractPool.DEFAULT_IDLE_TIMEOUT_MILLIS);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        pool.close();
+    }
+
+    /**
+     * Test of borrow and release methods, of class TesseractPool.
+     *
+     * @throws Exception while processing image.
+     */
+    @Test
+    public void testBorrowAndRelease() throws Exception {
+        logger.info("borrow and release");
+        assertEquals(1, pool.getIdleCount());
+        File imageFile = new File(this.testResourcesDataPath, "eurotext.png");
+        String expResult = "The (quick) [brown] {fox} jumps!\nOver the $43,456.78 <lazy> #90 dog";
+
+        Tesseract instance = pool.borrow();
+        assertEquals(1, pool.getActiveCount());
+        try {
+            String result = instance.doOCR(imageFile);
+            logger.info(result);
+            assertEquals(expResult, result.substring(0, expResult.length()));
+        } finally {
+            pool.release(instance);
+        }
+
+        // warm engine is reused
+        Tesseract again = pool.borrow();
+        assertSame(instance, again);
+        pool.release(again);
+        assertEquals(0, pool.getActiveCount());
+    }
+
+    /**
+     * Test of release method, of class TesseractPool, with an engine whose
+     * settings were changed by its borrower.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testRelease_ChangedSettings() throws Exception {
+        logger.info("release with changed settings");
+        Tesseract instance = pool.borrow();
+        instance.setVariable("tessedit_char_whitelist", "0123456789");
+        pool.release(instance);
+        assertEquals(0, pool.getIdleCount());
+
+        // the next borrower gets a fresh engine
+        Tesseract again = pool.borrow();
+        assertNotSame(instance, again);
+        pool.release(again);
+        assertEquals(1, pool.getIdleCount());
+    }
+
+    /**
+     * Test of execute method with settings set on the pool, of class
+     * TesseractPool. The warm engine takes them on instead of being closed.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testExecute_WarmEngine() throws Exception {
+        logger.info("execute on a warm engine");
+        Tesseract warm = pool.borrow();
+        pool.release(warm);
+
+        pool.setPageSegMode(ITessAPI.TessPageSegMode.PSM_SINGLE_BLOCK);
+        pool.setVariable("user_defined_dpi", "300");
+        Tesseract used = pool.execute(instance -> instance);
+        assertSame(warm, used);
+        assertEquals(1, pool.getIdleCount());
+
+        // it keeps the settings for the next job
+        assertSame(warm, pool.execute(instance -> instance));
+    }
+
+    /**
+     * Test of borrow method with timeout, of class TesseractPool.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testBorrow_Timeout() throws Exception {
+        logger.info("borrow with timeout");
+        Tesseract first = pool.borrow();
+        Tesseract second = pool.borrow();
+        try {
+            assertThrows(TesseractException.class, () -> pool.borrow(pool.getDefaultKey(), 100, TimeUnit.MILLISECONDS));
+        } finally {
+            pool.release(first);
+            pool.release(second);
+        }
+    }
+
+    /**
+     * Test of doOCRAsync method, of class TesseractPool.
+     *
+     * @throws Exception while processing image.
+     */
+    @Test
+    public void testDoOCRAsync() throws Exception {
+        logger.info("doOCRAsync");
+        File imageFile = new File(this.testResourcesDataPath, "eurotext.png");
+        String expResult = "The (quick) [brown] {fox} jumps!\nOver the $43,456.78 <lazy> #90 dog";
+
+        CompletableFuture<String> first = pool.doOCRAsync(imageFile);
+        CompletableFuture<String> second = pool.doOCRAsync(imageFile);
+        assertEquals(expResult, first.get().substring(0, expResult.length()));
+        assertEquals(expResult, second.get().substring(0, expResult.length()));
+        assertEquals(0, pool.getActiveCount());
+    }
+
+    /**
+     * Test of doOCR method with page parallelism, of class TesseractPool.
+     *
+     * @throws Exception while processing image.
+     */
+    @Test
+    public void testDoOCR_ParallelPages() throws Exception {
+        logger.info("doOCR with page parallelism");
+        File imageFile = new File(this.testResourcesDataPath, "multipage-img.pdf");
+        pool.setVariable("tessedit_create_hocr", "1");
+
+        String expResult = pool.doOCR(imageFile);
+        pool.setPageParallelism(2);
+        String result = pool.doOCR(imageFile);
+        assertEquals(expResult, result);
+        assertTrue(result.startsWith(ITesseract.htmlBeginTag));
+    }
+}
@@ -19,6 +19,7 @@ import java.awt.Rectangle;
 import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
 import java.io.File;
+import java.nio.file.Files;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -28,6 +29,7 @@ import javax.imageio.ImageIO;
 
 import net.sourceforge.tess4j.util.ImageHelper;
 import net.sourceforge.tess4j.util.LoggHelper;
+import net.sourceforge.tess4j.util.PixPreprocessor;
 import net.sourceforge.tess4j.util.Utils;
 import net.sourceforge.tess4j.ITesseract.RenderedFormat;
 import net.sourceforge.tess4j.ITessAPI.TessPageIteratorLevel;
@@ -81,6 +83,77 @@ public class TesseractTest {
         assertEquals(expResult, result.substring(0, expResult.length()));
     }
 
+    /**
+     * Test of doOCR method with native decoding, of class Tesseract.
+     *
+     * @throws Exception while processing image.
+     */
+    @Test
+    public void testDoOCR_File_NativeDecode() throws Exception {
+        logger.info("doOCR on a TIFF image decoded by Leptonica");
+        File imageFile = new File(this.testResourcesDataPath, "eurotext.tif");
+        String expResult = "The (quick) [brown] {fox} jumps!\nOver the $43,456.78 <lazy> #90 dog";
+        Tesseract tesseract = new Tesseract();
+        tesseract.setDatapath(new File(datapath).getPath());
+        tesseract.setNativeDecode(true);
+        String result = tesseract.doOCR(imageFile);
+        logger.info(result);
+        assertEquals(expResult, result.substring(0, expResult.length()));
+    }
+
+    /**
+     * Test of doOCR method on selected pages, of class Tesseract.
+     *
+     * @throws Exception while processing image.
+     */
+    @Test
+    public void testDoOCR_PageSelection() throws Exception {
+        logger.info("doOCR on selected pages of a PDF document");
+        File imageFile = new File(this.testResourcesDataPath, "multipage-img.pdf");
+        String all = instance.doOCR(imageFile);
+        String first = instance.doOCR(imageFile, PageSelection.first(1));
+        logger.info(first);
+        assertFalse(first.isEmpty());
+        assertTrue(first.length() < all.length());
+        assertTrue(all.startsWith(first));
+    }
+
+    /**
+     * Test of doOCR method on data in memory, of class Tesseract.
+     *
+     * @throws Exception while processing image.
+     */
+    @Test
+    public void testDoOCR_Bytes() throws Exception {
+        logger.info("doOCR on a PNG image in memory");
+        File imageFile = new File(this.testResourcesDataPath, "eurotext.png");
+        String expResult = "The (quick) [brown] {fox} jumps!\nOver the $43,456.78 <lazy> #90 dog";
+        String result = instance.doOCR(Files.readAllBytes(imageFile.toPath()));
+        logger.info(result);
+        assertEquals(expResult, result.substring(0, expResult.length()));
+    }
+
+    /**
+     * Test of open method, of class Tesseract.
+     *
+     * @throws Exception while processing image.
+     */
+    @Test
+    public void testDoOCR_File_Session() throws Exception {
+        logger.info("doOCR on a PNG image in a long-lived session");
+        File imageFile = new File(this.testResourcesDataPath, "eurotext.png");
+        String expResult = "The (quick) [brown] {fox} jumps!\nOver the $43,456.78 <lazy> #90 dog";
+        try (Tesseract session = new Tesseract()) {
+            session.setDatapath(new File(datapath).getPath());
+            session.open();
+            for (int i = 0; i < 3; i++) {
+                String result = session.doOCR(imageFile);
+                logger.info(result);
+                assertEquals(expResult, result.substring(0, expResult.length()));
+            }
+        }
+    }
+
     /**
      * Test of doOCR method, of class Tesseract.
      *
@@ -173,6 +246,31 @@ public class TesseractTest {
         assertEquals(expResult, result);
     }
 
+    /**
+     * Test of doOCR method in hybrid mode with regions of interest, of class
+     * Tesseract. Pages with a text layer are recognized within the regions
+     * rather than given their whole text.
+     *
+     * @throws Exception while processing image.
+     */
+    @Test
+    public void testDoOCR_File_Rectangles_HybridPdf() throws Exception {
+        logger.info("doOCR on a born-digital PDF in hybrid mode with defined ROI");
+        File imageFile = new File(this.testResourcesDataPath, "multipage-pdf.pdf");
+        Rectangle rect = new Rectangle(283, 310, 68, 100); // Coordinates of page numbers
+        String expResult = "1\n2\n3\n4\n5\n";
+        Tesseract tesseract = (Tesseract) instance;
+        tesseract.setHybridPdf(true);
+        tesseract.setPageSegMode(ITessAPI.TessPageSegMode.PSM_SINGLE_CHAR);
+        String result = tesseract.doOCR(imageFile, Arrays.asList(rect));
+        logger.info(result);
+        assertEquals(expResult, result);
+
+        // without regions, the whole text layer is taken
+        result = tesseract.doOCR(imageFile);
+        assertTrue(result.contains("Seite 1 von 5"));
+    }
+
     /**
      * Test of doOCR method, of class Tesseract.
      *
@@ -282,6 +380,83 @@ public class TesseractTest {
         assertEquals(expResult, result.substring(0, expResult.length()));
     }
 
+    /**
+     * Test of setDeskew method, of class Tesseract. Pages are deskewed in
+     * memory, from Java and native decoding.
+     *
+     * @throws Exception while processing image.
+     */
+    @Test
+    public void testDoOCR_Deskew() throws Exception {
+        logger.info("doOCR with in-memory deskew");
+        File imageFile = new File(this.testResourcesDataPath, "eurotext_deskew.png");
+        Tesseract tesseract = (Tesseract) instance;
+        tesseract.setDeskew(true);
+
+        String expResult = "The (quick) [brown] {fox} jumps!\nOver the $43,456.78 <lazy> #90 dog";
+        String result = tesseract.doOCR(imageFile);
+        logger.info(result);
+        assertEquals(expResult, result.substring(0, expResult.length()));
+
+        tesseract.setNativeDecode(true);
+        result = tesseract.doOCR(imageFile);
+        logger.info(result);
+        assertEquals(expResult, result.substring(0, expResult.length()));
+    }
+
+    /**
+     * Test of setPreprocessor method, of class Tesseract. Pages are deskewed,
+     * binarized and scaled natively.
+     *
+     * @throws Exception while processing image.
+     */
+    @Test
+    public void testDoOCR_Preprocessor() throws Exception {
+        logger.info("doOCR with native preprocessing");
+        File imageFile = new File(this.testResourcesDataPath, "eurotext_deskew.png");
+        PixPreprocessor preprocessor = new PixPreprocessor();
+        preprocessor.setDeskew(true);
+        preprocessor.setBinarization(PixPreprocessor.Binarization.SAUVOLA);
+        preprocessor.setTargetResolution(300);
+        Tesseract tesseract = (Tesseract) instance;
+        tesseract.setPreprocessor(preprocessor);
+        tesseract.setNativeDecode(true);
+
+        String expResult = "The (quick) [brown] {fox} jumps!\nOver the $43,456.78 <lazy> #90 dog";
+        String result = tesseract.doOCR(imageFile);
+        logger.info(result);
+        assertEquals(expResult, result.substring(0, expResult.length()));
+
+        // pages decoded in Java are converted once, then preprocessed natively
+        tesseract.setNativeDecode(false);
+        preprocessor.setBinarization(PixPreprocessor.Binarization.OTSU);
+        result = tesseract.doOCR(imageFile);
+        logger.info(result);
+        assertEquals(expResult, result.substring(0, expResult.length()));
+    }
+
+    /**
+     * Test of setPreprocessor method with regions of interest, of class
+     * Tesseract. Regions are scaled with the page.
+     *
+     * @throws Exception while processing image.
+     */
+    @Test
+    public void testDoOCR_Preprocessor_Rectangles() throws Exception {
+        logger.info("doOCR with native scaling and bounding rectangles");
+        File imageFile = new File(this.testResourcesDataPath, "eurotext.png");
+        Rectangle rect = new Rectangle(97, 162, 747, 50); // Third Line
+        PixPreprocessor preprocessor = new PixPreprocessor();
+        preprocessor.setScale(2);
+        Tesseract tesseract = (Tesseract) instance;
+        tesseract.setPreprocessor(preprocessor);
+
+        String expResult = "& duck/goose, as 12.5% of E-mail\n";
+        String result = tesseract.doOCR(imageFile, Arrays.asList(rect));
+        logger.info(result);
+        assertEquals(expResult, result);
+    }
+
     /**
      * Test of createDocuments method, of class Tesseract.
      *
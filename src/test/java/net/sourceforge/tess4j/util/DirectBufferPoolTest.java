@@ -0,0 +1,136 @@
+/*
+ * Copyright 2026 Quan Nguyen.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.tess4j.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.awt.image.BufferedImage;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DirectBufferPoolTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(new LoggHelper().toString());
+
+    /**
+     * Test of acquire and release methods, of class DirectBufferPool.
+     */
+    @Test
+    public void testAcquireAndRelease() {
+        logger.info("acquire and release");
+        DirectBufferPool instance = new DirectBufferPool(1 << 20);
+        ByteBuffer buf = instance.acquire(100000);
+        assertTrue(buf.isDirect());
+        assertEquals(ByteOrder.nativeOrder(), buf.order());
+        assertEquals(0, buf.position());
+        assertEquals(100000, buf.limit());
+        assertEquals(1 << 17, buf.capacity());
+        assertEquals(0, instance.getHitCount());
+        assertEquals(1, instance.getMissCount());
+
+        instance.release(buf);
+        assertEquals(1 << 17, instance.getPooledBytes());
+
+        // same size class
+        ByteBuffer buf2 = instance.acquire(70000);
+        assertSame(buf, buf2);
+        assertEquals(70000, buf2.limit());
+        assertEquals(0, instance.getPooledBytes());
+        assertEquals(0.5, instance.getHitRate(), 0.0);
+
+        // buffers not from this pool are ignored
+        instance.release(ByteBuffer.allocate(1 << 16));
+        instance.release(ByteBuffer.allocateDirect(100));
+        instance.release(ByteBuffer.allocateDirect(1 << 16));
+        instance.release(new DirectBufferPool(1 << 20).acquire(1000));
+        assertEquals(0, instance.getPooledBytes());
+    }
+
+    /**
+     * Test of release method, of class DirectBufferPool, with a buffer
+     * released twice.
+     */
+    @Test
+    public void testRelease_Twice() {
+        logger.info("release twice");
+        DirectBufferPool instance = new DirectBufferPool(1 << 20);
+        ByteBuffer buf = instance.acquire(1000);
+        instance.release(buf);
+        instance.release(buf);
+        assertEquals(1 << 16, instance.getPooledBytes());
+
+        // handed out once only
+        ByteBuffer buf1 = instance.acquire(1000);
+        ByteBuffer buf2 = instance.acquire(1000);
+        assertSame(buf, buf1);
+        assertNotSame(buf1, buf2);
+    }
+
+    /**
+     * Test of the pooled capacity limit, of class DirectBufferPool.
+     */
+    @Test
+    public void testRelease_Limit() {
+        logger.info("release over limit");
+        DirectBufferPool instance = new DirectBufferPool(1 << 16);
+        ByteBuffer buf1 = instance.acquire(1000);
+        ByteBuffer buf2 = instance.acquire(1000);
+        instance.release(buf1);
+        instance.release(buf2);
+        assertEquals(1 << 16, instance.getPooledBytes());
+        instance.clear();
+        assertEquals(0, instance.getPooledBytes());
+    }
+
+    /**
+     * Test of sizeClass method, of class DirectBufferPool.
+     */
+    @Test
+    public void testSizeClass() {
+        logger.info("sizeClass");
+        assertEquals(0, DirectBufferPool.sizeClass(0));
+        assertEquals(0, DirectBufferPool.sizeClass(1 << 16));
+        assertEquals(1, DirectBufferPool.sizeClass((1 << 16) + 1));
+        assertEquals(DirectBufferPool.MAX_SHIFT - DirectBufferPool.MIN_SHIFT, DirectBufferPool.sizeClass(1 << 30));
+        assertEquals(-1, DirectBufferPool.sizeClass((1 << 30) + 1));
+    }
+
+    /**
+     * Test of convertImageData method with the default pool, of class
+     * ImageIOHelper.
+     */
+    @Test
+    public void testConvertImageData() {
+        logger.info("convertImageData");
+        BufferedImage bi = new BufferedImage(300, 300, BufferedImage.TYPE_BYTE_GRAY);
+        bi.getRaster().setSample(1, 0, 0, 42);
+        DirectBufferPool pool = DirectBufferPool.getDefault();
+        ByteBuffer buf = ImageIOHelper.convertImageData(bi);
+        assertEquals(300 * 300, buf.remaining());
+        assertEquals(42, buf.get(1));
+        pool.release(buf);
+        long hits = pool.getHitCount();
+        ByteBuffer buf2 = ImageIOHelper.getImageByteBuffer(bi.getSubimage(1, 0, 299, 299));
+        assertEquals(hits + 1, pool.getHitCount());
+        assertEquals(299 * 299, buf2.remaining());
+        assertEquals(42, buf2.get(0));
+        pool.release(buf2);
+    }
+}
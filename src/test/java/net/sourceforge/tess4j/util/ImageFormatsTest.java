@@ -0,0 +1,116 @@
+/*
+ * Copyright 2026 Quan Nguyen.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.tess4j.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriter;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ImageFormatsTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(new LoggHelper().toString());
+    private static final String TEST_RESOURCES_DATA_PATH = "src/test/resources/test-data/";
+
+    @TempDir
+    File tempDir;
+
+    /**
+     * Test of detect method on files, of class ImageFormats.
+     *
+     * @throws java.lang.Exception
+     */
+    @Test
+    public void testDetect_File() throws Exception {
+        logger.info("detect file");
+        assertEquals(ImageFormats.TIFF, ImageFormats.detect(new File(TEST_RESOURCES_DATA_PATH, "eurotext.tif")));
+        assertEquals(ImageFormats.PNG, ImageFormats.detect(new File(TEST_RESOURCES_DATA_PATH, "eurotext.png")));
+        assertEquals(ImageFormats.BMP, ImageFormats.detect(new File(TEST_RESOURCES_DATA_PATH, "eurotext.bmp")));
+        assertEquals(ImageFormats.PDF, ImageFormats.detect(new File(TEST_RESOURCES_DATA_PATH, "eurotext.pdf")));
+        assertNull(ImageFormats.detect(new File(TEST_RESOURCES_DATA_PATH, "eurotext.hocr")));
+        assertNull(ImageFormats.detect(new File(TEST_RESOURCES_DATA_PATH, "missing.png")));
+
+        // mislabelled file
+        File mislabelled = new File(tempDir, "eurotext.jpg");
+        Files.copy(new File(TEST_RESOURCES_DATA_PATH, "eurotext.png").toPath(), mislabelled.toPath());
+        assertEquals(ImageFormats.PNG, ImageIOHelper.getImageFileFormat(mislabelled));
+        try (PageSource pages = PageSource.open(mislabelled)) {
+            assertEquals(1, pages.getPageCount());
+        }
+    }
+
+    /**
+     * Test of detect method on signatures, of class ImageFormats.
+     */
+    @Test
+    public void testDetect_ByteBuffer() {
+        logger.info("detect signatures");
+        assertEquals(ImageFormats.TIFF, detect(new byte[]{'M', 'M', 0, 42, 0, 0, 0, 8}));
+        assertEquals(ImageFormats.JPEG, detect(new byte[]{(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, (byte) 0xE0}));
+        assertEquals(ImageFormats.JPEG2000, detect(new byte[]{0, 0, 0, 0x0C, 'j', 'P', ' ', ' ', '\r', '\n', (byte) 0x87, '\n'}));
+        assertEquals(ImageFormats.JBIG2, detect(new byte[]{(byte) 0x97, 'J', 'B', '2', '\r', '\n', 0x1A, '\n'}));
+        assertEquals(ImageFormats.GIF, detect("GIF89a".getBytes(StandardCharsets.US_ASCII)));
+        assertEquals(ImageFormats.PNM, detect("P4\n10 10\n".getBytes(StandardCharsets.US_ASCII)));
+        assertEquals(ImageFormats.PDF, detect("\r\n%PDF-1.7".getBytes(StandardCharsets.US_ASCII)));
+        assertNull(detect("PX".getBytes(StandardCharsets.US_ASCII)));
+        assertNull(detect(new byte[0]));
+    }
+
+    /**
+     * Test of fromExtension method, of class ImageFormats.
+     */
+    @Test
+    public void testFromExtension() {
+        logger.info("fromExtension");
+        assertEquals(ImageFormats.TIFF, ImageFormats.fromExtension(new File("a.TIF")));
+        assertEquals(ImageFormats.PNM, ImageFormats.fromExtension(new File("a.pgm")));
+        assertEquals(ImageFormats.JPEG2000, ImageFormats.fromExtension(new File("a.j2k")));
+        assertEquals("png", ImageFormats.fromExtension(new File("a.png")));
+    }
+
+    /**
+     * Test of createReader and createWriter methods, of class ImageIOFactory.
+     */
+    @Test
+    public void testImageIOFactory() {
+        logger.info("ImageIOFactory");
+        ImageReader reader1 = ImageIOFactory.createReader("TIFF");
+        ImageReader reader2 = ImageIOFactory.createReader("tiff");
+        assertNotSame(reader1, reader2);
+        assertSame(reader1.getOriginatingProvider(), reader2.getOriginatingProvider());
+        reader1.dispose();
+        reader2.dispose();
+
+        ImageWriter writer = ImageIOFactory.createWriter(ImageIOHelper.TIFF_FORMAT);
+        assertNotNull(writer);
+        writer.dispose();
+
+        assertThrows(RuntimeException.class, () -> ImageIOFactory.createReader("no-such-format"));
+    }
+
+    private static String detect(byte[] data) {
+        return ImageFormats.detect(ByteBuffer.wrap(data));
+    }
+}
@@ -23,6 +23,8 @@ import java.util.List;
 import java.util.Map;
 import javax.imageio.IIOImage;
 import javax.imageio.ImageIO;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.ImageWriter;
 
 import org.junit.jupiter.api.*;
 import static org.junit.jupiter.api.Assertions.*;
@@ -172,6 +174,27 @@ public class ImageIOHelperTest {
         result.delete();
     }
 
+    /**
+     * Test of deskew method, of class ImageIOHelper.
+     *
+     * @throws java.lang.Exception
+     */
+    @Test
+    public void testDeskew() throws Exception {
+        logger.info("deskew");
+        BufferedImage bi = ImageIO.read(new File(TEST_RESOURCES_DATA_PATH, "eurotext_deskew.png"));
+        DeskewResult<BufferedImage> result = ImageIOHelper.deskew(bi, MINIMUM_DESKEW_THRESHOLD);
+        assertTrue(result.isRotated());
+        assertEquals(new ImageDeskew(bi).getSkewAngle(), result.getAngle());
+        assertNotSame(bi, result.getImage());
+        assertTrue(Math.abs(new ImageDeskew(result.getImage()).getSkewAngle()) < Math.abs(result.getAngle()));
+
+        // skewed by less than the threshold
+        result = ImageIOHelper.deskew(bi, 30);
+        assertFalse(result.isRotated());
+        assertSame(bi, result.getImage());
+    }
+
     /**
      * Test of readImageData method, of class ImageIOHelper.
      * @throws java.io.IOException
@@ -189,4 +212,30 @@ public class ImageIOHelperTest {
         assertEquals(String.valueOf(expResultDpiY), result.get("dpiY"));
     }
 
+    /**
+     * Test of readImageData method on an image without resolution, of class
+     * ImageIOHelper.
+     */
+    @Test
+    public void testReadImageData_DefaultResolution() {
+        logger.info("readImageData default resolution");
+        BufferedImage bi = new BufferedImage(100, 50, BufferedImage.TYPE_BYTE_GRAY);
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("png").next();
+        IIOImage oimage = new IIOImage(bi, null, writer.getDefaultImageMetadata(ImageTypeSpecifier.createFromRenderedImage(bi), null));
+        writer.dispose();
+        assertEquals(0, ImageIOHelper.getResolution(oimage));
+        assertEquals(0, ImageIOHelper.getDefaultResolution());
+        Map<String, String> result = ImageIOHelper.readImageData(oimage);
+        assertEquals(String.valueOf(ImageIOHelper.DEFAULT_RESOLUTION), result.get("dpiX"));
+
+        try {
+            ImageIOHelper.setDefaultResolution(200);
+            result = ImageIOHelper.readImageData(oimage);
+            assertEquals("200", result.get("dpiX"));
+            assertEquals("200", result.get("dpiY"));
+        } finally {
+            ImageIOHelper.setDefaultResolution(0);
+        }
+    }
+
 }
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2026 Quan Nguyen.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.tess4j.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MappedImageInputStreamTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(new LoggHelper().toString());
+    private static final String TEST_RESOURCES_DATA_PATH = "src/test/resources/test-data/";
+
+    @TempDir
+    File tempDir;
+
+    /**
+     * Test of read methods across segments, of class MappedImageInputStream.
+     *
+     * @throws java.lang.Exception
+     */
+    @Test
+    public void testRead_Segments() throws Exception {
+        logger.info("read across segments");
+        byte[] data = new byte[100];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) i;
+        }
+        File file = new File(tempDir, "data.bin");
+        Files.write(file.toPath(), data);
+
+        // 16-byte segments
+        try (MappedImageInputStream instance = new MappedImageInputStream(file, 4)) {
+            assertEquals(100, instance.length());
+            instance.seek(14);
+            assertEquals(0x0E0F1011, instance.readInt());
+
+            byte[] b = new byte[40];
+            instance.seek(10);
+            instance.readFully(b);
+            for (int i = 0; i < b.length; i++) {
+                assertEquals(10 + i, b[i]);
+            }
+
+            instance.seek(98);
+            assertEquals(2, instance.read(b, 0, 10));
+            assertEquals(-1, instance.read());
+        }
+    }
+
+    /**
+     * Test of close method, of class MappedImageInputStream. The mapping is
+     * released, so that the file can be deleted on any platform.
+     *
+     * @throws java.lang.Exception
+     */
+    @Test
+    public void testClose() throws Exception {
+        logger.info("close");
+        File file = new File(tempDir, "data.bin");
+        Files.write(file.toPath(), new byte[100]);
+        MappedImageInputStream instance = new MappedImageInputStream(file, 4);
+        assertEquals(0, instance.read());
+        instance.close();
+        assertThrows(IOException.class, () -> instance.read());
+        assertTrue(file.delete());
+
+        // the JVM allows unmapping
+        try (RandomAccessFile raf = new RandomAccessFile(new File(TEST_RESOURCES_DATA_PATH, "eurotext.tif"), "r")) {
+            assertTrue(MappedImageInputStream.unmap(raf.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, 16)));
+        }
+    }
+
+    /**
+     * Test of decoding a TIFF image through ImageIOHelper, of class
+     * MappedImageInputStream.
+     *
+     * @throws java.lang.Exception
+     */
+    @Test
+    public void testDecodeTiff() throws Exception {
+        logger.info("decode TIFF");
+        File tiffFile = new File(TEST_RESOURCES_DATA_PATH, "eurotext.tif");
+        BufferedImage expected = ImageIO.read(tiffFile);
+        try (MappedImageInputStream iis = (MappedImageInputStream) ImageIOHelper.createImageInputStream(tiffFile)) {
+            ImageReader reader = ImageIO.getImageReaders(iis).next();
+            reader.setInput(iis);
+            BufferedImage bi = reader.read(0);
+            reader.dispose();
+            assertEquals(expected.getWidth(), bi.getWidth());
+            assertEquals(expected.getRGB(200, 50), bi.getRGB(200, 50));
+        }
+    }
+}
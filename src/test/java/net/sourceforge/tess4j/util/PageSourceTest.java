@@ -0,0 +1,106 @@
+/*
+ * Copyright 2026 Quan Nguyen.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.tess4j.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.FileInputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.List;
+import javax.imageio.IIOImage;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PageSourceTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(new LoggHelper().toString());
+    private static final String TEST_RESOURCES_DATA_PATH = "src/test/resources/test-data/";
+
+    /**
+     * Test of iterator method, of class PageSource.
+     *
+     * @throws java.lang.Exception
+     */
+    @Test
+    public void testIterator_Pdf() throws Exception {
+        logger.info("iterator of PDF");
+        File inputFile = new File(TEST_RESOURCES_DATA_PATH, "multipage-pdf.pdf");
+        try (PageSource instance = PageSource.open(inputFile)) {
+            int count = 0;
+            for (IIOImage page : instance) {
+                assertNotNull(page.getRenderedImage());
+                count++;
+            }
+            assertEquals(PdfUtilities.getPdfPageCount(inputFile), count);
+        }
+    }
+
+    /**
+     * Test of getPage method, of class PageSource.
+     *
+     * @throws java.lang.Exception
+     */
+    @Test
+    public void testGetPage_Tiff() throws Exception {
+        logger.info("getPage of TIFF");
+        File inputFile = new File(TEST_RESOURCES_DATA_PATH, "eurotext.tif");
+        try (PageSource instance = PageSource.open(inputFile)) {
+            assertEquals(1, instance.getPageCount());
+            List<BufferedImage> biList = instance.asImageList();
+            assertEquals(1, biList.size());
+            assertEquals(instance.getPage(0).getRenderedImage().getWidth(), biList.get(0).getWidth());
+        }
+
+        // pages are located without counting them
+        try (PageSource instance = PageSource.open(inputFile)) {
+            assertTrue(instance.hasPage(0));
+            assertFalse(instance.hasPage(1));
+            assertEquals(1, instance.getPageCount());
+        }
+    }
+
+    /**
+     * Test of open method for data in memory, of class PageSource.
+     *
+     * @throws java.lang.Exception
+     */
+    @Test
+    public void testOpen_ByteBuffer() throws Exception {
+        logger.info("open data in memory");
+        File pdfFile = new File(TEST_RESOURCES_DATA_PATH, "multipage-pdf.pdf");
+        try (PageSource instance = PageSource.open(ByteBuffer.wrap(Files.readAllBytes(pdfFile.toPath())), null)) {
+            assertEquals(PdfUtilities.getPdfPageCount(pdfFile), instance.getPageCount());
+            assertNotNull(instance.getPage(1).getRenderedImage());
+        }
+
+        File tiffFile = new File(TEST_RESOURCES_DATA_PATH, "eurotext.tif");
+        try (FileInputStream in = new FileInputStream(tiffFile);
+                PageSource instance = PageSource.open(ImageIOHelper.readByteBuffer(in), "tiff");
+                PageSource expected = PageSource.open(tiffFile)) {
+            assertEquals(1, instance.getPageCount());
+            BufferedImage bi = (BufferedImage) instance.getPage(0).getRenderedImage();
+            BufferedImage exp = (BufferedImage) expected.getPage(0).getRenderedImage();
+            assertEquals(exp.getWidth(), bi.getWidth());
+            assertEquals(exp.getRGB(100, 100), bi.getRGB(100, 100));
+            assertEquals(ImageIOHelper.getResolution(expected.getPage(0)), ImageIOHelper.getResolution(instance.getPage(0)));
+        }
+    }
+}
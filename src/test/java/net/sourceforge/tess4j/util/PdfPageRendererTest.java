@@ -0,0 +1,105 @@
+/*
+ * Copyright 2026 Quan Nguyen.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.tess4j.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import javax.imageio.IIOImage;
+import org.apache.pdfbox.rendering.ImageType;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PdfPageRendererTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(new LoggHelper().toString());
+    private static final String TEST_RESOURCES_DATA_PATH = "src/test/resources/test-data/";
+
+    /**
+     * Test of renderPage method, of class PdfPageRenderer.
+     *
+     * @throws java.lang.Exception
+     */
+    @Test
+    public void testRenderPage() throws Exception {
+        logger.info("renderPage");
+        File inputPdfFile = new File(TEST_RESOURCES_DATA_PATH, "multipage-pdf.pdf");
+        try (PdfPageRenderer instance = new PdfPageRenderer(inputPdfFile)) {
+            assertEquals(PdfUtilities.getPdfPageCount(inputPdfFile), instance.getPageCount());
+            BufferedImage bi = instance.renderPage(instance.getPageCount() - 1);
+            assertEquals(BufferedImage.TYPE_INT_RGB, bi.getType());
+            assertTrue(bi.getWidth() > 0 && bi.getHeight() > 0);
+        }
+    }
+
+    /**
+     * Test of getPage method, of class PdfPageRenderer.
+     *
+     * @throws java.lang.Exception
+     */
+    @Test
+    public void testGetPage() throws Exception {
+        logger.info("getPage");
+        // single full-page bilevel scan, decoded at native resolution
+        try (PdfPageRenderer instance = new PdfPageRenderer(new File(TEST_RESOURCES_DATA_PATH, "eurotext.pdf"))) {
+            IIOImage page = instance.getPage(0);
+            BufferedImage bi = (BufferedImage) page.getRenderedImage();
+            assertEquals(BufferedImage.TYPE_BYTE_BINARY, bi.getType());
+            assertEquals(1024, bi.getWidth());
+            assertEquals(300, ImageIOHelper.getResolution(page));
+        }
+
+        // page with text, rendered
+        try (PdfPageRenderer instance = new PdfPageRenderer(new File(TEST_RESOURCES_DATA_PATH, "multipage-pdf.pdf"))) {
+            IIOImage page = instance.getPage(0);
+            assertEquals(BufferedImage.TYPE_INT_RGB, ((BufferedImage) page.getRenderedImage()).getType());
+            assertEquals(instance.getDpi(0), ImageIOHelper.getResolution(page));
+        }
+    }
+
+    /**
+     * Test of getDpi method in auto mode and rendering in grayscale, of class
+     * PdfPageRenderer.
+     *
+     * @throws java.lang.Exception
+     */
+    @Test
+    public void testGetDpi_Auto() throws Exception {
+        logger.info("getDpi auto");
+        File inputPdfFile = new File(TEST_RESOURCES_DATA_PATH, "multipage-pdf.pdf");
+        try (PdfPageRenderer instance = new PdfPageRenderer(inputPdfFile, PdfPageRenderer.AUTO_DPI, ImageType.GRAY)) {
+            int dpi = instance.getDpi(0);
+            assertTrue(dpi >= PdfPageRenderer.MIN_AUTO_DPI && dpi <= PdfPageRenderer.MAX_AUTO_DPI);
+            assertEquals(0, dpi % 50);
+            IIOImage page = instance.getPage(0);
+            assertEquals(BufferedImage.TYPE_BYTE_GRAY, ((BufferedImage) page.getRenderedImage()).getType());
+            assertEquals(dpi, ImageIOHelper.getResolution(page));
+        }
+    }
+
+    /**
+     * Test of isPdf method, of class PdfPageRenderer.
+     */
+    @Test
+    public void testIsPdf() {
+        logger.info("isPdf");
+        assertTrue(PdfPageRenderer.isPdf(new File(TEST_RESOURCES_DATA_PATH, "eurotext.PDF")));
+        assertFalse(PdfPageRenderer.isPdf(new File(TEST_RESOURCES_DATA_PATH, "eurotext.tif")));
+    }
+}
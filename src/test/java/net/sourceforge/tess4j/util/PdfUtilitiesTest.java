@@ -64,6 +64,37 @@ public class PdfUtilitiesTest {
         parentDir.delete();
     }
 
+    /**
+     * Test of convertPdf2Png method with several rendering threads, of class
+     * PdfUtilities.
+     *
+     * @throws java.io.IOException
+     */
+    @Test
+    public void testConvertPdf2Png_Parallel() throws IOException {
+        logger.info("convertPdf2Png with several rendering threads");
+        File inputPdfFile = new File(TEST_RESOURCES_DATA_PATH, "multipage-pdf.pdf");
+        int threads = PdfBoxUtilities.getRenderThreads();
+        File[] results;
+        try {
+            PdfUtilities.setRenderThreads(2);
+            results = PdfUtilities.convertPdf2Png(inputPdfFile);
+        } finally {
+            PdfUtilities.setRenderThreads(threads);
+        }
+        assertEquals(PdfUtilities.getPdfPageCount(inputPdfFile), results.length);
+        for (int i = 0; i < results.length; i++) {
+            assertEquals(String.format("workingimage%04d.png", i + 1), results[i].getName());
+        }
+
+        //clean up
+        File parentDir = results[0].getParentFile();
+        for (File result : results) {
+            result.delete();
+        }
+        parentDir.delete();
+    }
+
     /**
      * Test of splitPdf method, of class PdfUtilities.
      */
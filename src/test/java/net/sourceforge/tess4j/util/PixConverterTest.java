@@ -0,0 +1,121 @@
+/*
+ * Copyright 2026 Quan Nguyen.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.tess4j.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.awt.image.BufferedImage;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PixConverterTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(new LoggHelper().toString());
+
+    /**
+     * Test of packRow method for binary images, of class PixConverter.
+     */
+    @Test
+    public void testPackRow_Binary() {
+        logger.info("packRow binary");
+        BufferedImage bi = new BufferedImage(40, 2, BufferedImage.TYPE_BYTE_BINARY);
+        // white everywhere but pixels 0 and 33 of row 1
+        for (int x = 0; x < bi.getWidth(); x++) {
+            bi.setRGB(x, 1, x == 0 || x == 33 ? 0xFF000000 : 0xFFFFFFFF);
+        }
+        int[] words = new int[2];
+        PixConverter.packRow(bi, 1, words);
+        // a one pixel is black, padding bits are clear
+        assertEquals(0x80000000, words[0]);
+        assertEquals(0x40000000, words[1]);
+
+        PixConverter.packRow(bi, 0, words);
+        assertEquals(0xFFFFFFFF, words[0]);
+        assertEquals(0xFF000000, words[1]);
+    }
+
+    /**
+     * Test of packRow method for grayscale images, of class PixConverter.
+     */
+    @Test
+    public void testPackRow_Gray() {
+        logger.info("packRow gray");
+        BufferedImage bi = new BufferedImage(5, 1, BufferedImage.TYPE_BYTE_GRAY);
+        int[] samples = {0x10, 0x20, 0x30, 0x40, 0x50};
+        bi.getRaster().setPixels(0, 0, 5, 1, samples);
+        int[] words = new int[2];
+        PixConverter.packRow(bi, 0, words);
+        assertEquals(0x10203040, words[0]);
+        assertEquals(0x50000000, words[1]);
+    }
+
+    /**
+     * Test of packRow method for color images, of class PixConverter.
+     */
+    @Test
+    public void testPackRow_Color() {
+        logger.info("packRow color");
+        int[] types = {BufferedImage.TYPE_3BYTE_BGR, BufferedImage.TYPE_INT_RGB};
+        for (int type : types) {
+            BufferedImage bi = new BufferedImage(2, 1, type);
+            bi.setRGB(0, 0, 0x123456);
+            bi.setRGB(1, 0, 0xABCDEF);
+            int[] words = new int[2];
+            PixConverter.packRow(bi, 0, words);
+            assertEquals(0x12345600, words[0]);
+            assertEquals(0xABCDEF00, words[1]);
+        }
+
+        BufferedImage bi = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+        bi.setRGB(0, 0, 0x80123456);
+        int[] words = new int[1];
+        PixConverter.packRow(bi, 0, words);
+        assertEquals(0x12345680, words[0]);
+        assertEquals(32, PixConverter.getDepth(bi));
+    }
+
+    /**
+     * Test of packRow method on a subimage, of class PixConverter.
+     */
+    @Test
+    public void testPackRow_Subimage() {
+        logger.info("packRow subimage");
+        BufferedImage bi = new BufferedImage(4, 3, BufferedImage.TYPE_BYTE_GRAY);
+        for (int y = 0; y < 3; y++) {
+            for (int x = 0; x < 4; x++) {
+                bi.getRaster().setSample(x, y, 0, y * 16 + x);
+            }
+        }
+        BufferedImage sub = bi.getSubimage(1, 1, 2, 2);
+        assertTrue(PixConverter.isSupported(sub));
+        int[] words = new int[1];
+        PixConverter.packRow(sub, 1, words);
+        assertEquals(0x21220000, words[0]);
+    }
+
+    /**
+     * Test of isSupported method, of class PixConverter.
+     */
+    @Test
+    public void testIsSupported() {
+        logger.info("isSupported");
+        assertTrue(PixConverter.isSupported(new BufferedImage(8, 8, BufferedImage.TYPE_BYTE_BINARY)));
+        assertFalse(PixConverter.isSupported(new BufferedImage(8, 8, BufferedImage.TYPE_USHORT_GRAY)));
+        assertFalse(PixConverter.isSupported(new BufferedImage(8, 8, BufferedImage.TYPE_INT_ARGB_PRE)));
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2026 Quan Nguyen.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.tess4j.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PixSourceTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(new LoggHelper().toString());
+    private static final String TEST_RESOURCES_DATA_PATH = "src/test/resources/test-data/";
+
+    @TempDir
+    File tempDir;
+
+    /**
+     * Test of readDirectoryOffsets method, of class PixSource.
+     *
+     * @throws java.lang.Exception
+     */
+    @Test
+    public void testReadDirectoryOffsets() throws Exception {
+        logger.info("readDirectoryOffsets");
+        File outputTiff = new File(tempDir, "pages.tif");
+        try (TiffWriter writer = new TiffWriter(outputTiff)) {
+            for (int i = 0; i < 3; i++) {
+                writer.append(new BufferedImage(100 + i, 50, BufferedImage.TYPE_BYTE_GRAY), 0, 0);
+            }
+        }
+
+        long[] offsets = PixSource.readDirectoryOffsets(outputTiff.getPath(), 3);
+        assertEquals(3, offsets.length);
+        for (int i = 0; i < offsets.length; i++) {
+            assertTrue(offsets[i] > 0 && offsets[i] < outputTiff.length());
+            for (int j = 0; j < i; j++) {
+                assertNotEquals(offsets[j], offsets[i]);
+            }
+        }
+        assertArrayEquals(new long[]{offsets[0], offsets[1]}, PixSource.readDirectoryOffsets(outputTiff.getPath(), 2));
+
+        // not a TIFF file
+        assertEquals(0, PixSource.readDirectoryOffsets(TEST_RESOURCES_DATA_PATH + "eurotext.png", 1).length);
+    }
+}
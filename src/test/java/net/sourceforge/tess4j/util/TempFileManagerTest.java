@@ -0,0 +1,184 @@
+/*
+ * Copyright 2026 Quan Nguyen.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.tess4j.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TempFileManagerTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(new LoggHelper().toString());
+    private static final String TEST_RESOURCES_DATA_PATH = "src/test/resources/test-data/";
+
+    @TempDir
+    File tempDir;
+
+    TempFileManager instance;
+
+    @BeforeEach
+    public void setUp() {
+        instance = new TempFileManager(tempDir);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        instance.deleteWorkFiles();
+    }
+
+    /**
+     * Test of openScope method, of class TempFileManager.
+     *
+     * @throws java.lang.Exception
+     */
+    @Test
+    public void testOpenScope() throws Exception {
+        logger.info("openScope");
+        File file;
+        File dir;
+        try (TempFileManager.Scope scope = instance.openScope()) {
+            file = scope.createTempFile("page", ".png");
+            dir = scope.createTempDirectory("images");
+            Files.write(new File(dir, "a.png").toPath(), new byte[100]);
+            assertTrue(file.getPath().startsWith(new File(tempDir, TempFileManager.WORK_DIR).getPath()));
+            assertEquals(100, instance.getUsage());
+        }
+        assertFalse(file.exists());
+        assertFalse(dir.exists());
+        assertEquals(0, instance.getUsage());
+    }
+
+    /**
+     * Test of sweep method, of class TempFileManager.
+     *
+     * @throws java.lang.Exception
+     */
+    @Test
+    public void testSweep() throws Exception {
+        logger.info("sweep");
+        File own = instance.createTempFile("multipage", ".tif");
+
+        // directory of a process that died: lock file present but not held
+        File orphan = new File(new File(tempDir, TempFileManager.WORK_DIR), "orphan");
+        assertTrue(orphan.mkdirs());
+        assertTrue(new File(orphan, TempFileManager.LOCK_FILE).createNewFile());
+        Files.write(new File(orphan, "Tesstmp1.tif").toPath(), new byte[10]);
+
+        assertEquals(1, instance.sweep());
+        assertFalse(orphan.exists());
+        assertTrue(own.exists());
+
+        // directory held by another running manager
+        TempFileManager other = new TempFileManager(tempDir);
+        File otherFile = other.openScope().createTempFile("page", ".png");
+        try {
+            assertEquals(0, instance.sweep());
+            assertTrue(otherFile.exists());
+        } finally {
+            other.deleteWorkFiles();
+        }
+        assertFalse(otherFile.exists());
+    }
+
+    /**
+     * Test of createTempFile method, of class TempFileManager. Files outside
+     * any scope belong to the caller and outlive the working files.
+     *
+     * @throws java.lang.Exception
+     */
+    @Test
+    public void testCreateTempFile() throws Exception {
+        logger.info("createTempFile");
+        instance.setQuota(50, 0);
+        File output;
+        try (TempFileManager.Scope scope = instance.openScope()) {
+            Files.write(scope.createTempFile("page", ".png").toPath(), new byte[100]);
+            // not held back by the scope of the job that produces it
+            output = instance.createTempFile("multipage", ".tif");
+            assertTrue(output.getPath().startsWith(new File(tempDir, TempFileManager.OUTPUT_DIR).getPath()));
+        }
+        instance.deleteWorkFiles();
+        assertTrue(output.exists());
+    }
+
+    /**
+     * Test of setQuota method, of class TempFileManager.
+     *
+     * @throws java.lang.Exception
+     */
+    @Test
+    public void testQuota() throws Exception {
+        logger.info("quota");
+        instance.setQuota(50, 300);
+        try (TempFileManager.Scope scope = instance.openScope();
+                TempFileManager.Scope other = instance.openScope()) {
+            File file = other.createTempFile("page", ".png");
+            Files.write(file.toPath(), new byte[100]);
+            // a scope is not held back by its own files
+            assertTrue(other.createTempFile("page", ".png").exists());
+            assertThrows(IOException.class, () -> scope.createTempFile("page", ".png"));
+
+            // space freed by another thread lets the waiting creation proceed
+            Thread cleaner = new Thread(() -> {
+                try {
+                    Thread.sleep(100);
+                } catch (InterruptedException e) {
+                    // ignore
+                }
+                file.delete();
+            });
+            cleaner.start();
+            assertTrue(scope.createTempFile("page", ".png").exists());
+            cleaner.join();
+        }
+    }
+
+    /**
+     * Test of awaitQuota method, of class TempFileManager.Scope, as called for
+     * each page written by PdfBoxUtilities.convertPdf2Tiff in a scope.
+     *
+     * @throws java.lang.Exception
+     */
+    @Test
+    public void testAwaitQuota() throws Exception {
+        logger.info("awaitQuota");
+        File pdfFile = new File(TEST_RESOURCES_DATA_PATH, "eurotext.pdf");
+        try (TempFileManager.Scope scope = instance.openScope();
+                TempFileManager.Scope other = instance.openScope()) {
+            File tiffFile = PdfBoxUtilities.convertPdf2Tiff(pdfFile, scope);
+            assertEquals(scope.getDirectory(), tiffFile.getParentFile());
+            // the PNG images are gone; the TIFF image stays with the scope
+            assertArrayEquals(new File[]{tiffFile}, scope.getDirectory().listFiles());
+
+            Files.write(other.createTempFile("page", ".png").toPath(), new byte[100]);
+            instance.setQuota(50, 0);
+            assertThrows(IOException.class, scope::awaitQuota);
+            assertThrows(IOException.class, () -> PdfBoxUtilities.convertPdf2Tiff(pdfFile, scope));
+
+            scope.close();
+            assertFalse(tiffFile.exists());
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2026 Quan Nguyen.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.tess4j.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TiffWriterTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(new LoggHelper().toString());
+    private static final String TEST_RESOURCES_DATA_PATH = "src/test/resources/test-data/";
+
+    @TempDir
+    File tempDir;
+
+    /**
+     * Test of append method, of class TiffWriter.
+     *
+     * @throws java.lang.Exception
+     */
+    @Test
+    public void testAppend() throws Exception {
+        logger.info("append");
+        BufferedImage binary = ImageIO.read(new File(TEST_RESOURCES_DATA_PATH, "eurotext.png"));
+        BufferedImage gray = new BufferedImage(binary.getWidth(), binary.getHeight(), BufferedImage.TYPE_BYTE_GRAY);
+        gray.getGraphics().drawImage(binary, 0, 0, null);
+        assertEquals(TiffWriter.LZW_COMPRESSION, TiffWriter.getCompressionType(gray));
+        assertEquals(TiffWriter.G4_COMPRESSION, TiffWriter.getCompressionType(binary));
+
+        File outputTiff = new File(tempDir, "archive.tif");
+        try (TiffWriter writer = new TiffWriter(outputTiff)) {
+            writer.append(gray, 0, 0);
+            writer.append(binary, 200, 200);
+            writer.append(ImageIOHelper.getIIOImage(gray, 150, 150));
+            assertEquals(3, writer.getPageCount());
+        }
+
+        try (PageSource pages = PageSource.open(outputTiff)) {
+            assertEquals(3, pages.getPageCount());
+            assertEquals(TiffWriter.DEFAULT_DPI, ImageIOHelper.getResolution(pages.getPage(0)));
+            assertEquals(200, ImageIOHelper.getResolution(pages.getPage(1)));
+            assertEquals(150, ImageIOHelper.getResolution(pages.getPage(2)));
+            assertEquals(gray.getRGB(100, 40), ((BufferedImage) pages.getPage(0).getRenderedImage()).getRGB(100, 40));
+            assertEquals(binary.getRGB(100, 40), ((BufferedImage) pages.getPage(1).getRenderedImage()).getRGB(100, 40));
+        }
+    }
+
+    /**
+     * Test of mergeTiff method, of class ImageIOHelper, which leaves the list
+     * of the caller unchanged.
+     *
+     * @throws java.lang.Exception
+     */
+    @Test
+    public void testMergeTiff_List() throws Exception {
+        logger.info("mergeTiff list");
+        BufferedImage bi = ImageIO.read(new File(TEST_RESOURCES_DATA_PATH, "eurotext.png"));
+        IIOImage page = new IIOImage(bi, null, null);
+        List<IIOImage> imageList = new ArrayList<>(Arrays.asList(page, page));
+        File outputTiff = new File(tempDir, "merged.tif");
+        ImageIOHelper.mergeTiff(imageList, outputTiff, "LZW");
+        assertEquals(2, imageList.size());
+        assertNull(page.getMetadata());
+        try (PageSource pages = PageSource.open(outputTiff)) {
+            assertEquals(2, pages.getPageCount());
+        }
+    }
+}